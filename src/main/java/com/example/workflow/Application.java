@@ -48,10 +48,14 @@ public class Application {
       // Verify service delegates are registered
       boolean putDelegateExists = applicationContext.containsBean("putServiceDelegate");
       boolean getDelegateExists = applicationContext.containsBean("getServiceDelegate");
+      boolean asyncPutDelegateExists = applicationContext.containsBean("asyncPutServiceDelegate");
+      boolean asyncGetDelegateExists = applicationContext.containsBean("asyncGetServiceDelegate");
       
       logger.info("✅ Service Delegates Registration:");
       logger.info("  - putServiceDelegate: {}", putDelegateExists ? "✅ registered" : "❌ missing");
       logger.info("  - getServiceDelegate: {}", getDelegateExists ? "✅ registered" : "❌ missing");
+      logger.info("  - asyncPutServiceDelegate: {}", asyncPutDelegateExists ? "✅ registered" : "❌ missing");
+      logger.info("  - asyncGetServiceDelegate: {}", asyncGetDelegateExists ? "✅ registered" : "❌ missing");
       
     } catch (Exception e) {
       logger.error("❌ Error checking service delegates: {}", e.getMessage());
@@ -0,0 +1,63 @@
+package com.example.workflow.config;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.discovery.AbstractDiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.discovery.SimpleDiscoveryNode;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discovers members by resolving a DNS name to all of its A records, the way a Kubernetes
+ * headless service lists its ready pods. Resolving {@code localhost} gives a local stand-in
+ * that needs no cluster DNS.
+ */
+public class DnsDiscoveryStrategy extends AbstractDiscoveryStrategy {
+    
+    private final String serviceDns;
+    private final int servicePort;
+    private final int resolveTimeoutSeconds;
+    
+    @SuppressWarnings("rawtypes")
+    public DnsDiscoveryStrategy(ILogger logger, Map<String, Comparable> properties) {
+        super(logger, properties);
+        this.serviceDns = getOrDefault(DnsDiscoveryStrategyFactory.SERVICE_DNS, "localhost");
+        this.servicePort = getOrDefault(DnsDiscoveryStrategyFactory.SERVICE_PORT, 5701);
+        this.resolveTimeoutSeconds = getOrDefault(DnsDiscoveryStrategyFactory.RESOLVE_TIMEOUT_SECONDS, 2);
+    }
+    
+    @Override
+    public Iterable<DiscoveryNode> discoverNodes() {
+        InetAddress[] addresses;
+        try {
+            // The JVM resolver has no timeout of its own, a hanging DNS server would stall the join
+            addresses = CompletableFuture.supplyAsync(this::resolve)
+                .get(resolveTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            getLogger().warning("Could not resolve " + serviceDns + ": " + e.getMessage());
+            return Collections.emptyList();
+        }
+        
+        List<DiscoveryNode> nodes = new ArrayList<>(addresses.length);
+        for (InetAddress address : addresses) {
+            nodes.add(new SimpleDiscoveryNode(new Address(address, servicePort)));
+        }
+        getLogger().fine("Resolved " + serviceDns + " to " + nodes.size() + " members");
+        return nodes;
+    }
+    
+    private InetAddress[] resolve() {
+        try {
+            return InetAddress.getAllByName(serviceDns);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
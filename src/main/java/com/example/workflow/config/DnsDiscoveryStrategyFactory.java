@@ -0,0 +1,42 @@
+package com.example.workflow.config;
+
+import com.hazelcast.config.properties.PropertyDefinition;
+import com.hazelcast.config.properties.PropertyTypeConverter;
+import com.hazelcast.config.properties.SimplePropertyDefinition;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.discovery.DiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryStrategyFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates {@link DnsDiscoveryStrategy} instances for the Hazelcast discovery SPI.
+ */
+public class DnsDiscoveryStrategyFactory implements DiscoveryStrategyFactory {
+    
+    static final PropertyDefinition SERVICE_DNS =
+        new SimplePropertyDefinition("service-dns", PropertyTypeConverter.STRING);
+    static final PropertyDefinition SERVICE_PORT =
+        new SimplePropertyDefinition("service-port", true, PropertyTypeConverter.INTEGER);
+    static final PropertyDefinition RESOLVE_TIMEOUT_SECONDS =
+        new SimplePropertyDefinition("resolve-timeout-seconds", true, PropertyTypeConverter.INTEGER);
+    
+    @Override
+    public Class<? extends DiscoveryStrategy> getDiscoveryStrategyType() {
+        return DnsDiscoveryStrategy.class;
+    }
+    
+    @Override
+    @SuppressWarnings("rawtypes")
+    public DiscoveryStrategy newDiscoveryStrategy(DiscoveryNode discoveryNode, ILogger logger, Map<String, Comparable> properties) {
+        return new DnsDiscoveryStrategy(logger, properties);
+    }
+    
+    @Override
+    public Collection<PropertyDefinition> getConfigurationProperties() {
+        return List.of(SERVICE_DNS, SERVICE_PORT, RESOLVE_TIMEOUT_SECONDS);
+    }
+}
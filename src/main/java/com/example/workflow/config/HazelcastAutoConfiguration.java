@@ -1,41 +1,397 @@
 package com.example.workflow.config;
 
+import com.example.workflow.persistence.WorkflowMapStoreFactory;
+import com.example.workflow.serialization.ChunkManifestSerializer;
+import com.example.workflow.serialization.CompressedPayloadSerializer;
+import com.example.workflow.serialization.PayloadCodecRegistry;
+import com.example.workflow.serialization.SessionSerializers;
+import com.example.workflow.serialization.WorkflowDataKeySerializer;
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.config.ClientNetworkConfig;
+import com.hazelcast.client.impl.connection.tcp.RoutingMode;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.config.AttributeConfig;
 import com.hazelcast.config.Config;
+import com.hazelcast.config.DiscoveryStrategyConfig;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.JoinConfig;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.SerializationConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.properties.ClusterProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.session.hazelcast.HazelcastIndexedSessionRepository;
+import org.springframework.session.hazelcast.PrincipalNameExtractor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @ConditionalOnProperty(prefix = "hazelcast", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class HazelcastAutoConfiguration {
     
+    private static final Logger logger = LoggerFactory.getLogger(HazelcastAutoConfiguration.class);
+    
     @Autowired
     private HazelcastProperties hazelcastProperties;
     
+    @Autowired
+    private PayloadCodecRegistry payloadCodecRegistry;
+    
+    @Autowired
+    private WorkflowMapStoreFactory workflowMapStoreFactory;
+    
+    @Autowired
+    private ObjectProvider<ServerProperties> serverProperties;
+    
     @Bean
     public Config hazelcastConfig() {
         Config config = new Config();
         config.setInstanceName(hazelcastProperties.getInstanceName());
+        config.setClusterName(hazelcastProperties.getClusterName());
+        // Lite members take part in the cluster but hold no partitions or backups
+        config.setLiteMember(hazelcastProperties.getMode() == HazelcastProperties.Mode.LITE_MEMBER);
         
-        // Configure the map for workflow data storage
-        configureWorkflowMap(config);
+        // Configure how members find each other
+        configureNetwork(config);
+        
+        if (hazelcastProperties.getSession().isAffinity()) {
+            // Lets SessionAffinityEndpoint tell the web proxy where each member serves HTTP
+            Integer port = serverProperties.getIfAvailable(ServerProperties::new).getPort();
+            config.getMemberAttributeConfig().setAttribute(SessionAffinityEndpoint.HTTP_PORT_ATTRIBUTE,
+                String.valueOf(port != null ? port : 8080));
+        }
+        
+        if (hazelcastProperties.getShutdown().isEnabled()) {
+            // Hazelcast's own hook terminates the member concurrently with the Spring context;
+            // GracefulShutdownCoordinator shuts it down once work has drained instead
+            config.setProperty(ClusterProperty.SHUTDOWNHOOK_ENABLED.getName(), "false");
+        }
+        
+        // Configure the maps for workflow data storage
+        configureWorkflowMaps(config);
         
         // Configure the map for session storage
         configureSessionMap(config);
         
+        // Configure the map backing Hazelcast-stored process variables
+        configureVariableMap(config);
+        
+        // Register Compact serializers for workflow keys and payloads
+        configureSerialization(config.getSerializationConfig());
+        
         return config;
     }
     
-    private void configureWorkflowMap(Config config) {
+    private void configureNetwork(Config config) {
+        HazelcastProperties.Network network = hazelcastProperties.getNetwork();
+        HazelcastProperties.Join join = network.getJoin();
+        
+        int joinMethods = (join.getMulticast().isEnabled() ? 1 : 0)
+            + (join.getTcpIp().isEnabled() ? 1 : 0)
+            + (join.getDiscovery().isEnabled() ? 1 : 0);
+        if (joinMethods > 1) {
+            throw new IllegalStateException("Invalid Hazelcast network configuration: "
+                + "enable only one of hazelcast.network.join.multicast, tcp-ip and discovery");
+        }
+        if (join.getTcpIp().isEnabled() && join.getTcpIp().getMembers().isEmpty()) {
+            throw new IllegalStateException("Invalid Hazelcast network configuration: "
+                + "hazelcast.network.join.tcp-ip.members must list at least one member");
+        }
+        
+        config.getNetworkConfig()
+            .setPort(network.getPort())
+            .setPortAutoIncrement(network.isPortAutoIncrement())
+            .setPortCount(network.getPortCount());
+        
+        // The defaults wait 5s before joining, even when the member list is known up front
+        config.setProperty(ClusterProperty.WAIT_SECONDS_BEFORE_JOIN.getName(),
+            String.valueOf(join.getWaitSecondsBeforeJoin()));
+        config.setProperty(ClusterProperty.MAX_WAIT_SECONDS_BEFORE_JOIN.getName(),
+            String.valueOf(join.getMaxWaitSecondsBeforeJoin()));
+        
+        JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+        joinConfig.getAutoDetectionConfig().setEnabled(join.isAutoDetection());
+        joinConfig.getMulticastConfig()
+            .setEnabled(join.getMulticast().isEnabled())
+            .setMulticastTimeoutSeconds(join.getMulticast().getTimeoutSeconds());
+        joinConfig.getTcpIpConfig()
+            .setEnabled(join.getTcpIp().isEnabled())
+            .setMembers(new ArrayList<>(join.getTcpIp().getMembers()))
+            .setConnectionTimeoutSeconds(join.getTcpIp().getConnectionTimeoutSeconds());
+        
+        HazelcastProperties.Discovery discovery = join.getDiscovery();
+        if (discovery.isEnabled()) {
+            config.setProperty(ClusterProperty.DISCOVERY_SPI_ENABLED.getName(), "true");
+            DiscoveryStrategyConfig strategyConfig = new DiscoveryStrategyConfig(new DnsDiscoveryStrategyFactory());
+            strategyConfig.addProperty(DnsDiscoveryStrategyFactory.SERVICE_DNS.key(), discovery.getServiceDns());
+            strategyConfig.addProperty(DnsDiscoveryStrategyFactory.SERVICE_PORT.key(), discovery.getServicePort());
+            strategyConfig.addProperty(DnsDiscoveryStrategyFactory.RESOLVE_TIMEOUT_SECONDS.key(),
+                discovery.getResolveTimeoutSeconds());
+            joinConfig.getDiscoveryConfig().addDiscoveryStrategyConfig(strategyConfig);
+        }
+        
+        logger.info("Hazelcast join: {}", discovery.isEnabled() ? "DNS discovery of " + discovery.getServiceDns()
+            : join.getTcpIp().isEnabled() ? "tcp-ip " + join.getTcpIp().getMembers()
+            : join.getMulticast().isEnabled() ? "multicast"
+            : join.isAutoDetection() ? "auto-detection" : "none, standalone member");
+    }
+    
+    private void configureWorkflowMaps(Config config) {
+        List<HazelcastProperties.MapProfile> profiles = new ArrayList<>();
+        profiles.add(hazelcastProperties.getMap());
+        profiles.addAll(hazelcastProperties.getMaps());
+        validateProfiles(profiles);
+        
+        int chunkTimeToLiveSeconds = 0;
+        HazelcastProperties.Persistence chunkPersistence = null;
+        for (int i = 0; i < profiles.size(); i++) {
+            HazelcastProperties.MapProfile map = profiles.get(i);
+            validateMap(map, i == 0 ? "hazelcast.map" : "hazelcast.maps[" + (i - 1) + "]");
+            config.addMapConfig(workflowMapConfig(map));
+            
+            // Chunks must outlive the longest-lived entry that can reference them
+            int ttl = map.getTimeToLiveSeconds();
+            chunkTimeToLiveSeconds = i == 0 || (ttl != 0 && chunkTimeToLiveSeconds != 0)
+                ? Math.max(chunkTimeToLiveSeconds, ttl)
+                : 0;
+            // A persisted manifest is useless without its chunks
+            if (chunkPersistence == null && map.getPersistence().isEnabled()) {
+                chunkPersistence = map.getPersistence();
+            }
+        }
+        
+        // Chunks of large payloads expire with the entries that reference them
+        MapConfig chunkMapConfig = new MapConfig();
+        chunkMapConfig.setName(hazelcastProperties.getMap().getChunking().getMapName());
+        chunkMapConfig.setBackupCount(hazelcastProperties.getMap().getBackupCount());
+        chunkMapConfig.setTimeToLiveSeconds(chunkTimeToLiveSeconds);
+        if (chunkPersistence != null) {
+            chunkMapConfig.setMapStoreConfig(mapStoreConfig(chunkPersistence, chunkTimeToLiveSeconds));
+        }
+        config.addMapConfig(chunkMapConfig);
+    }
+    
+    private MapConfig workflowMapConfig(HazelcastProperties.MapProfile map) {
         MapConfig workflowMapConfig = new MapConfig();
-        workflowMapConfig.setName(hazelcastProperties.getMap().getName());
-        workflowMapConfig.setBackupCount(hazelcastProperties.getMap().getBackupCount());
-        workflowMapConfig.setTimeToLiveSeconds(hazelcastProperties.getMap().getTimeToLiveSeconds());
-        config.addMapConfig(workflowMapConfig);
+        workflowMapConfig.setName(map.getName());
+        workflowMapConfig.setBackupCount(map.getBackupCount());
+        workflowMapConfig.setAsyncBackupCount(map.getAsyncBackupCount());
+        workflowMapConfig.setReadBackupData(map.isReadBackupData());
+        workflowMapConfig.setTimeToLiveSeconds(map.getTimeToLiveSeconds());
+        workflowMapConfig.setInMemoryFormat(map.getInMemoryFormat());
+        workflowMapConfig.getEvictionConfig()
+            .setEvictionPolicy(map.getEviction().getPolicy())
+            .setMaxSizePolicy(map.getMaxSize().getPolicy())
+            .setSize(map.getMaxSize().getValue());
+        
+        HazelcastProperties.NearCache nearCache = map.getNearCache();
+        if (nearCache.isEnabled()) {
+            workflowMapConfig.setNearCacheConfig(nearCacheConfig(map.getName(), nearCache));
+        }
+        
+        if (map.getPersistence().isEnabled()) {
+            workflowMapConfig.setMapStoreConfig(mapStoreConfig(map.getPersistence(), map.getTimeToLiveSeconds()));
+        }
+        
+        for (HazelcastProperties.Index index : map.getIndexes()) {
+            IndexConfig indexConfig = new IndexConfig(index.getType(), index.getAttributes().toArray(new String[0]));
+            if (index.getName() != null) {
+                indexConfig.setName(index.getName());
+            }
+            workflowMapConfig.addIndexConfig(indexConfig);
+        }
+        
+        logger.info("Configured map '{}': backups={}/{} async, format={}, eviction={} at {} {}, near cache={}, indexes={}",
+            map.getName(), map.getBackupCount(), map.getAsyncBackupCount(), map.getInMemoryFormat(),
+            map.getEviction().getPolicy(), map.getMaxSize().getValue(), map.getMaxSize().getPolicy(),
+            nearCache.isEnabled(), map.getIndexes().size());
+        return workflowMapConfig;
+    }
+    
+    private MapStoreConfig mapStoreConfig(HazelcastProperties.Persistence persistence, int timeToLiveSeconds) {
+        MapStoreConfig mapStoreConfig = new MapStoreConfig()
+            .setEnabled(true)
+            .setFactoryImplementation(workflowMapStoreFactory)
+            .setWriteDelaySeconds(persistence.getWriteDelaySeconds())
+            .setWriteBatchSize(persistence.getWriteBatchSize())
+            .setWriteCoalescing(persistence.isWriteCoalescing())
+            .setInitialLoadMode(persistence.getInitialLoad() == HazelcastProperties.InitialLoad.EAGER
+                ? MapStoreConfig.InitialLoadMode.EAGER
+                : MapStoreConfig.InitialLoadMode.LAZY);
+        mapStoreConfig.setProperty(WorkflowMapStoreFactory.TABLE, persistence.getTable());
+        mapStoreConfig.setProperty(WorkflowMapStoreFactory.TIME_TO_LIVE_SECONDS, String.valueOf(timeToLiveSeconds));
+        mapStoreConfig.setProperty(WorkflowMapStoreFactory.LOAD_ALL_KEYS,
+            String.valueOf(persistence.getInitialLoad() != HazelcastProperties.InitialLoad.NONE));
+        mapStoreConfig.setProperty(WorkflowMapStoreFactory.PURGE_INTERVAL_SECONDS,
+            String.valueOf(persistence.getPurgeIntervalSeconds()));
+        return mapStoreConfig;
+    }
+    
+    /**
+     * Checks that workflow map profiles do not collide with each other or with the other
+     * maps this application configures.
+     */
+    private void validateProfiles(List<HazelcastProperties.MapProfile> profiles) {
+        List<String> errors = new ArrayList<>();
+        Set<String> reserved = Set.of(
+            hazelcastProperties.getMap().getChunking().getMapName(),
+            hazelcastProperties.getSession().getMapName(),
+            hazelcastProperties.getVariables().getMapName());
+        Set<String> names = new HashSet<>();
+        Map<String, String> processKeys = new HashMap<>();
+        
+        for (HazelcastProperties.MapProfile profile : profiles) {
+            String name = profile.getName();
+            if (name == null || name.isBlank()) {
+                errors.add("hazelcast.maps entries need a name");
+                continue;
+            }
+            if (!names.add(name)) {
+                errors.add("workflow map '" + name + "' is configured more than once");
+            }
+            if (reserved.contains(name)) {
+                errors.add("workflow map '" + name + "' clashes with a chunk, session or variable map");
+            }
+            for (String processKey : profile.getProcessDefinitionKeys()) {
+                String previous = processKeys.putIfAbsent(processKey, name);
+                if (previous != null && !previous.equals(name)) {
+                    errors.add("process definition '" + processKey + "' is routed to both '" + previous + "' and '" + name + "'");
+                }
+            }
+        }
+        
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid Hazelcast map configuration: " + String.join("; ", errors));
+        }
+    }
+    
+    private static NearCacheConfig nearCacheConfig(String mapName, HazelcastProperties.NearCache nearCache) {
+        return new NearCacheConfig(mapName)
+            .setInMemoryFormat(nearCache.getInMemoryFormat())
+            .setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds())
+            .setMaxIdleSeconds(nearCache.getMaxIdleSeconds())
+            .setInvalidateOnChange(nearCache.isInvalidateOnChange())
+            .setCacheLocalEntries(nearCache.isCacheLocalEntries())
+            .setEvictionConfig(new EvictionConfig()
+                .setEvictionPolicy(nearCache.getEvictionPolicy())
+                .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                .setSize(nearCache.getMaxEntries()));
+    }
+    
+    private static void validateNearCache(HazelcastProperties.NearCache nearCache, String prefix, List<String> errors) {
+        if (nearCache.getInMemoryFormat() == InMemoryFormat.NATIVE) {
+            errors.add(prefix + ".in-memory-format NATIVE requires Hazelcast Enterprise");
+        }
+        if (nearCache.getMaxEntries() <= 0) {
+            errors.add(prefix + ".max-entries must be positive");
+        }
+        if (nearCache.getTimeToLiveSeconds() < 0 || nearCache.getMaxIdleSeconds() < 0) {
+            errors.add(prefix + " time-to-live-seconds and max-idle-seconds must not be negative");
+        }
+    }
+    
+    /**
+     * Rejects map settings that Hazelcast would otherwise ignore or only fail on at first use,
+     * so a misconfigured map stops the application at startup.
+     */
+    private void validateMap(HazelcastProperties.MapProfile map, String prefix) {
+        List<String> errors = new ArrayList<>();
+        
+        if (map.getBackupCount() < 0 || map.getAsyncBackupCount() < 0) {
+            errors.add(prefix + ".backup-count and async-backup-count must not be negative");
+        } else if (map.getBackupCount() + map.getAsyncBackupCount() > MapConfig.MAX_BACKUP_COUNT) {
+            errors.add(prefix + ": backup-count + async-backup-count must not exceed " + MapConfig.MAX_BACKUP_COUNT);
+        }
+        if (map.getTimeToLiveSeconds() < 0) {
+            errors.add(prefix + ".time-to-live-seconds must not be negative");
+        }
+        if (map.getInMemoryFormat() == InMemoryFormat.NATIVE) {
+            errors.add(prefix + ".in-memory-format NATIVE requires Hazelcast Enterprise");
+        }
+        
+        MaxSizePolicy maxSizePolicy = map.getMaxSize().getPolicy();
+        int maxSize = map.getMaxSize().getValue();
+        if (maxSize <= 0) {
+            errors.add(prefix + ".max-size.value must be positive");
+        }
+        switch (maxSizePolicy) {
+            case USED_HEAP_PERCENTAGE, FREE_HEAP_PERCENTAGE -> {
+                if (maxSize > 100) {
+                    errors.add(prefix + ".max-size.value must be a percentage for " + maxSizePolicy);
+                }
+            }
+            case PER_NODE, PER_PARTITION, USED_HEAP_SIZE, FREE_HEAP_SIZE -> { }
+            default -> errors.add(prefix + ".max-size.policy " + maxSizePolicy + " is not supported for on-heap maps");
+        }
+        if ((maxSizePolicy == MaxSizePolicy.USED_HEAP_PERCENTAGE || maxSizePolicy == MaxSizePolicy.USED_HEAP_SIZE)
+                && map.getInMemoryFormat() == InMemoryFormat.OBJECT) {
+            errors.add(prefix + ".max-size.policy " + maxSizePolicy + " cannot measure OBJECT in-memory-format");
+        }
+        if (map.getEviction().getPolicy() == EvictionPolicy.NONE && maxSize != Integer.MAX_VALUE) {
+            logger.warn("{}.max-size is set but eviction policy is NONE, the map will not be bounded", prefix);
+        }
+        if (map.getEviction().getMaxSizeCheckIntervalSeconds() != null) {
+            logger.warn("{}.eviction.max-size-check-interval-seconds has no effect, Hazelcast checks the size on every put", prefix);
+        }
+        if (map.isReadBackupData() && map.getBackupCount() + map.getAsyncBackupCount() == 0) {
+            logger.warn("{}.read-backup-data has no effect without backups", prefix);
+        }
+        
+        HazelcastProperties.Persistence persistence = map.getPersistence();
+        if (persistence.isEnabled()) {
+            if (persistence.getWriteDelaySeconds() < 0 || persistence.getWriteBatchSize() < 1) {
+                errors.add(prefix + ".persistence needs a non-negative write-delay-seconds and a positive write-batch-size");
+            } else if (persistence.getWriteDelaySeconds() == 0) {
+                logger.warn("{}.persistence.write-delay-seconds is 0, every write waits for the database", prefix);
+            }
+            if (!persistence.getTable().matches("[A-Za-z_][A-Za-z0-9_]*")) {
+                errors.add(prefix + ".persistence.table must be a plain SQL identifier");
+            }
+        }
+        
+        HazelcastProperties.NearCache nearCache = map.getNearCache();
+        if (nearCache.isEnabled()) {
+            validateNearCache(nearCache, prefix + ".near-cache", errors);
+            if (hazelcastProperties.getMap().isConsumeOnRead()) {
+                logger.warn("{}.near-cache is enabled but entries are consumed on read, it will rarely hit", prefix);
+            }
+        }
+        
+        for (int i = 0; i < map.getIndexes().size(); i++) {
+            HazelcastProperties.Index index = map.getIndexes().get(i);
+            if (index.getType() == null || index.getAttributes().isEmpty()) {
+                errors.add(prefix + ".indexes[" + i + "] needs a type and at least one attribute");
+            } else if (index.getType() == IndexType.BITMAP && index.getAttributes().size() > 1) {
+                errors.add(prefix + ".indexes[" + i + "] BITMAP indexes support a single attribute");
+            }
+        }
+        
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid Hazelcast map configuration: " + String.join("; ", errors));
+        }
     }
     
     private void configureSessionMap(Config config) {
@@ -48,11 +404,132 @@ public class HazelcastAutoConfiguration {
         sessionMapConfig.setMaxIdleSeconds(
             hazelcastProperties.getSession().getMaxInactiveIntervalMinutes() * 60
         );
+        
+        // Webapp pages fire many parallel requests that all resolve the same session
+        HazelcastProperties.NearCache nearCache = hazelcastProperties.getSession().getNearCache();
+        if (nearCache.isEnabled()) {
+            List<String> errors = new ArrayList<>();
+            validateNearCache(nearCache, "hazelcast.session.near-cache", errors);
+            if (nearCache.getInMemoryFormat() != InMemoryFormat.BINARY) {
+                // Spring Session mutates the MapSession it reads, which must not be the cached instance
+                errors.add("hazelcast.session.near-cache.in-memory-format must be BINARY");
+            }
+            if (!nearCache.isInvalidateOnChange()) {
+                errors.add("hazelcast.session.near-cache.invalidate-on-change must be true, "
+                    + "otherwise other nodes keep serving logged-out or changed sessions");
+            }
+            int invalidationSeconds = hazelcastProperties.getSession().getNearCacheInvalidationSeconds();
+            if (invalidationSeconds < 1) {
+                errors.add("hazelcast.session.near-cache-invalidation-seconds must be at least 1");
+            }
+            if (!errors.isEmpty()) {
+                throw new IllegalStateException("Invalid Hazelcast map configuration: " + String.join("; ", errors));
+            }
+            sessionMapConfig.setNearCacheConfig(nearCacheConfig(sessionMapConfig.getName(), nearCache));
+            // Invalidations reach other nodes in batches, every 10 seconds by default, and until
+            // then they serve the old session. The property applies to all near-cached maps.
+            config.setProperty(ClusterProperty.MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS.getName(),
+                String.valueOf(invalidationSeconds));
+            logger.info("Configured near cache for session map '{}': up to {} sessions per node, "
+                + "invalidated on other nodes within {}s", sessionMapConfig.getName(), nearCache.getMaxEntries(),
+                invalidationSeconds);
+        }
+        
+        // The extractor runs on every session write, so only pay for it when sessions are looked up by user
+        if (hazelcastProperties.getSession().isPrincipalNameIndex()) {
+            sessionMapConfig.addAttributeConfig(new AttributeConfig(
+                HazelcastIndexedSessionRepository.PRINCIPAL_NAME_ATTRIBUTE, PrincipalNameExtractor.class.getName()));
+            sessionMapConfig.addIndexConfig(new IndexConfig(IndexType.HASH, HazelcastIndexedSessionRepository.PRINCIPAL_NAME_ATTRIBUTE));
+            logger.info("Configured principal name index for session map '{}'", sessionMapConfig.getName());
+        }
         config.addMapConfig(sessionMapConfig);
     }
     
+    private void configureVariableMap(Config config) {
+        HazelcastProperties.Variables variables = hazelcastProperties.getVariables();
+        MapConfig variableMapConfig = new MapConfig();
+        variableMapConfig.setName(variables.getMapName());
+        variableMapConfig.setBackupCount(variables.getBackupCount());
+        variableMapConfig.setTimeToLiveSeconds(variables.getTimeToLiveSeconds());
+        config.addMapConfig(variableMapConfig);
+    }
+    
+    private void configureSerialization(SerializationConfig serializationConfig) {
+        serializationConfig.getCompactSerializationConfig()
+            .addSerializer(new WorkflowDataKeySerializer())
+            .addSerializer(new ChunkManifestSerializer())
+            .addSerializer(new CompressedPayloadSerializer());
+        if (hazelcastProperties.getSession().isCustomSerialization()) {
+            SessionSerializers.applyTo(serializationConfig);
+        }
+        payloadCodecRegistry.applyTo(serializationConfig);
+    }
+    
     @Bean
     public HazelcastInstance hazelcastInstance(Config hazelcastConfig) {
-        return Hazelcast.newHazelcastInstance(hazelcastConfig);
+        if (hazelcastProperties.getMode() == HazelcastProperties.Mode.CLIENT) {
+            return newClient(hazelcastConfig);
+        }
+        long start = System.nanoTime();
+        HazelcastInstance instance = Hazelcast.newHazelcastInstance(hazelcastConfig);
+        logger.info("Hazelcast member started and joined a cluster of {} in {} ms",
+            instance.getCluster().getMembers().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (hazelcastConfig.isLiteMember() && instance.getCluster().getMembers().stream().allMatch(Member::isLiteMember)) {
+            // Map operations block until a data member joins
+            logger.warn("Started as a Hazelcast lite member but no data member has joined cluster '{}' yet",
+                hazelcastProperties.getClusterName());
+        }
+        return instance;
+    }
+    
+    /**
+     * Connects to a separate data tier instead of joining it, so this node owns no partitions
+     * and its GC pauses only delay its own operations. The map configurations built for
+     * members are added to the cluster dynamically.
+     */
+    private HazelcastInstance newClient(Config memberConfig) {
+        HazelcastProperties.Client client = hazelcastProperties.getClient();
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setInstanceName(hazelcastProperties.getInstanceName());
+        clientConfig.setClusterName(hazelcastProperties.getClusterName());
+        
+        ClientNetworkConfig network = clientConfig.getNetworkConfig();
+        network.setAddresses(new ArrayList<>(client.getAddresses()));
+        network.getClusterRoutingConfig()
+            .setRoutingMode(client.isSmartRouting() ? RoutingMode.ALL_MEMBERS : RoutingMode.SINGLE_MEMBER);
+        network.setConnectionTimeout(client.getConnectionTimeoutMillis());
+        clientConfig.getConnectionStrategyConfig().getConnectionRetryConfig()
+            .setClusterConnectTimeoutMillis(client.getClusterConnectTimeoutMillis());
+        
+        configureSerialization(clientConfig.getSerializationConfig());
+        if (hazelcastProperties.getShutdown().isEnabled()) {
+            // Same key as on members; 5.5 clients register no hook of their own, this keeps it that way
+            clientConfig.setProperty(ClusterProperty.SHUTDOWNHOOK_ENABLED.getName(), "false");
+        }
+        
+        // Near caches are configured per client, member near cache settings do not apply here
+        for (MapConfig mapConfig : memberConfig.getMapConfigs().values()) {
+            if (mapConfig.getNearCacheConfig() != null) {
+                clientConfig.addNearCacheConfig(new NearCacheConfig(mapConfig.getNearCacheConfig()));
+            }
+        }
+        
+        HazelcastInstance instance = HazelcastClient.newHazelcastClient(clientConfig);
+        for (MapConfig mapConfig : memberConfig.getMapConfigs().values()) {
+            if (mapConfig.getMapStoreConfig().isEnabled()) {
+                // The store factory is a local bean; the data tier has to configure persistence itself
+                logger.warn("Not pushing persistence of map '{}' to the data tier, configure it on the members", mapConfig.getName());
+                mapConfig = new MapConfig(mapConfig).setMapStoreConfig(new MapStoreConfig());
+            }
+            try {
+                instance.getConfig().addMapConfig(mapConfig);
+            } catch (InvalidConfigurationException e) {
+                // Another node or the data tier itself already defined the map differently
+                logger.warn("Keeping the data tier's configuration for map '{}': {}", mapConfig.getName(), e.getMessage());
+            }
+        }
+        logger.info("Connected to Hazelcast cluster '{}' as {} client via {}",
+            hazelcastProperties.getClusterName(), client.isSmartRouting() ? "smart" : "unisocket", client.getAddresses());
+        return instance;
     }
 }
\ No newline at end of file
@@ -31,7 +31,8 @@ public class HazelcastHealthIndicator implements HealthIndicator {
                     .withDetail("instanceName", hazelcastInstance.getName())
                     .withDetail("running", true)
                     .withDetail("clusterSize", hazelcastInstance.getCluster().getMembers().size())
-                    .withDetail("localMember", hazelcastInstance.getCluster().getLocalMember().toString())
+                    // The local endpoint is the member itself, or the client in client mode
+                    .withDetail("localMember", hazelcastInstance.getLocalEndpoint().toString())
                     .build();
             } else {
                 return Health.down()
@@ -0,0 +1,213 @@
+package com.example.workflow.config;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.memberselector.MemberSelectors;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IExecutorService;
+import com.hazelcast.map.IMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Actuator endpoint for tuning the workflow and session maps at runtime, e.g. during an
+ * incident. An update is applied on every data member and the response reports the
+ * effective config per member, so a member that missed it stands out. Updates are also
+ * recorded in the cluster once every member applied them, and applied by members that join
+ * later; they are lost once the whole cluster restarts, so keep application.yaml in line for
+ * anything that should stay.
+ *
+ * Hazelcast's dynamic config cannot change an existing map, so {@link MapConfigUpdateTask}
+ * swaps the config inside the member. In client mode the data tier would need this
+ * application's classes to run it, so the endpoint is only registered on cluster members.
+ *
+ * Updates need the token configured in {@code hazelcast.maps-endpoint.token}; without one
+ * the endpoint is read-only.
+ *
+ * GET  /actuator/hazelcastmaps          effective config of all managed maps
+ * GET  /actuator/hazelcastmaps/{name}   effective config of one map
+ * POST /actuator/hazelcastmaps/{name}   apply timeToLiveSeconds, maxIdleSeconds, maxSize
+ */
+@Component
+@Endpoint(id = "hazelcastmaps")
+@ConditionalOnExpression("!'${hazelcast.mode:embedded}'.equalsIgnoreCase('client')")
+public class HazelcastMapsEndpoint {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HazelcastMapsEndpoint.class);
+    
+    private static final String EXECUTOR_NAME = "workflow-map-config";
+    
+    // Updates made so far, by map name, for members that join later
+    static final String OVERRIDES_MAP = "workflow-map-config-overrides";
+    
+    private static final long TIMEOUT_SECONDS = 10;
+    
+    private static final int STATUS_FORBIDDEN = 403;
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    /**
+     * Applies the updates recorded by the cluster to this member's maps. Clients and lite
+     * members hold no entries, so there is nothing to apply.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void applyOverrides() {
+        if (hazelcastProperties.getMode() != HazelcastProperties.Mode.EMBEDDED) {
+            return;
+        }
+        IMap<String, MapConfigUpdateTask> overrides = hazelcastInstance.getMap(OVERRIDES_MAP);
+        overrides.forEach((mapName, task) -> {
+            task.setHazelcastInstance(hazelcastInstance);
+            logger.info("Applying runtime config of map '{}' made before this member joined: {}", mapName, task.call());
+        });
+    }
+    
+    @ReadOperation
+    public Map<String, Map<String, Map<String, Object>>> maps() {
+        Map<String, Map<String, Map<String, Object>>> maps = new LinkedHashMap<>();
+        for (String mapName : managedMaps()) {
+            maps.put(mapName, run(MapConfigUpdateTask.report(mapName)));
+        }
+        return maps;
+    }
+    
+    @ReadOperation
+    public Map<String, Map<String, Object>> map(@Selector String name) {
+        checkManaged(name);
+        return run(MapConfigUpdateTask.report(name));
+    }
+    
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Map<String, Object>>> update(@Selector String name,
+                                                                        @Nullable String token,
+                                                                        @Nullable Integer timeToLiveSeconds,
+                                                                        @Nullable Integer maxIdleSeconds,
+                                                                        @Nullable Integer maxSize,
+                                                                        @Nullable Integer backupCount,
+                                                                        @Nullable Integer asyncBackupCount) {
+        if (!isAuthorized(token)) {
+            logger.warn("Rejected unauthorized config update of map '{}'", name);
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+        checkManaged(name);
+        List<String> errors = new ArrayList<>();
+        if (backupCount != null || asyncBackupCount != null) {
+            errors.add("backup counts cannot change on a live map, set them in application.yaml and restart the members one by one");
+        }
+        if (timeToLiveSeconds != null && timeToLiveSeconds < 0) {
+            errors.add("timeToLiveSeconds must not be negative");
+        }
+        if (maxIdleSeconds != null && maxIdleSeconds < 0) {
+            errors.add("maxIdleSeconds must not be negative");
+        }
+        if (maxSize != null && maxSize <= 0) {
+            errors.add("maxSize must be positive");
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidEndpointRequestException("Invalid map config update: " + String.join("; ", errors),
+                "Invalid map config update");
+        }
+        
+        logger.warn("Updating config of map '{}' at runtime: ttl={}, maxIdle={}, maxSize={}",
+            name, timeToLiveSeconds, maxIdleSeconds, maxSize);
+        MapConfigUpdateTask task = new MapConfigUpdateTask(name, timeToLiveSeconds, maxIdleSeconds, maxSize);
+        Map<String, Map<String, Object>> byMember = run(task);
+        if (!appliedEverywhere(byMember)) {
+            // Not recorded, so members that join later do not pick up an update the cluster did not take
+            logger.error("Config update of map '{}' was not applied by every member: {}", name, byMember);
+            return new WebEndpointResponse<>(byMember, WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+        IMap<String, MapConfigUpdateTask> overrides = hazelcastInstance.getMap(OVERRIDES_MAP);
+        MapConfigUpdateTask previous = overrides.get(name);
+        overrides.set(name, previous != null ? previous.followedBy(task) : task);
+        return new WebEndpointResponse<>(byMember);
+    }
+    
+    private static boolean appliedEverywhere(Map<String, Map<String, Object>> byMember) {
+        for (Map<String, Object> effective : byMember.values()) {
+            if (effective.containsKey("error")) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean isAuthorized(String token) {
+        String expected = hazelcastProperties.getMapsEndpoint().getToken();
+        if (expected == null || expected.isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private List<String> managedMaps() {
+        List<String> names = new ArrayList<>();
+        names.add(hazelcastProperties.getMap().getName());
+        for (HazelcastProperties.MapProfile profile : hazelcastProperties.getMaps()) {
+            names.add(profile.getName());
+        }
+        names.add(hazelcastProperties.getSession().getMapName());
+        return names;
+    }
+    
+    private void checkManaged(String name) {
+        if (!managedMaps().contains(name)) {
+            throw new InvalidEndpointRequestException("Map '" + name + "' is not managed by this endpoint, use one of "
+                + managedMaps(), "Unknown map");
+        }
+    }
+    
+    /**
+     * Runs the task on every data member. Lite members and clients hold no entries, so their
+     * map config has nothing to tune.
+     */
+    private Map<String, Map<String, Object>> run(MapConfigUpdateTask task) {
+        IExecutorService executor = hazelcastInstance.getExecutorService(EXECUTOR_NAME);
+        Map<Member, Future<Map<String, Object>>> futures = executor.submitToMembers(task, MemberSelectors.DATA_MEMBER_SELECTOR);
+        
+        Map<String, Map<String, Object>> byMember = new LinkedHashMap<>();
+        futures.forEach((member, future) -> {
+            try {
+                byMember.put(member.getAddress().toString(), future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IllegalArgumentException) {
+                    // MapConfig rejects values it cannot apply
+                    throw new InvalidEndpointRequestException(e.getCause().getMessage(), "Invalid map config update");
+                }
+                byMember.put(member.getAddress().toString(), Map.of("error", String.valueOf(e.getCause())));
+            } catch (TimeoutException e) {
+                byMember.put(member.getAddress().toString(), Map.of("error", "no response within " + TIMEOUT_SECONDS + "s"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for member " + member, e);
+            }
+        });
+        return byMember;
+    }
+}
@@ -1,16 +1,33 @@
 package com.example.workflow.config;
 
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.MaxSizePolicy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @ConfigurationProperties(prefix = "hazelcast")
 public class HazelcastProperties {
     
     private String instanceName = "camunda-hazelcast";
     private boolean enabled = true;
+    private Mode mode = Mode.EMBEDDED;
+    private String clusterName = "dev";
+    private Client client = new Client();
+    private Network network = new Network();
     private Map map = new Map();
     private Session session = new Session();
+    private Async async = new Async();
+    private Serialization serialization = new Serialization();
+    private Variables variables = new Variables();
+    private List<MapProfile> maps = new ArrayList<>();
+    private Shutdown shutdown = new Shutdown();
+    private MapsEndpoint mapsEndpoint = new MapsEndpoint();
     
     public String getInstanceName() {
         return instanceName;
@@ -28,6 +45,38 @@ public class HazelcastProperties {
         this.enabled = enabled;
     }
     
+    public Mode getMode() {
+        return mode;
+    }
+    
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+    
+    public String getClusterName() {
+        return clusterName;
+    }
+    
+    public void setClusterName(String clusterName) {
+        this.clusterName = clusterName;
+    }
+    
+    public Client getClient() {
+        return client;
+    }
+    
+    public void setClient(Client client) {
+        this.client = client;
+    }
+    
+    public Network getNetwork() {
+        return network;
+    }
+    
+    public void setNetwork(Network network) {
+        this.network = network;
+    }
+    
     public Map getMap() {
         return map;
     }
@@ -44,10 +93,306 @@ public class HazelcastProperties {
         this.session = session;
     }
     
-    public static class Map {
-        private String name = "myMap";
+    public Async getAsync() {
+        return async;
+    }
+    
+    public void setAsync(Async async) {
+        this.async = async;
+    }
+    
+    public Serialization getSerialization() {
+        return serialization;
+    }
+    
+    public void setSerialization(Serialization serialization) {
+        this.serialization = serialization;
+    }
+    
+    public Variables getVariables() {
+        return variables;
+    }
+    
+    public void setVariables(Variables variables) {
+        this.variables = variables;
+    }
+    
+    public List<MapProfile> getMaps() {
+        return maps;
+    }
+    
+    public void setMaps(List<MapProfile> maps) {
+        this.maps = maps;
+    }
+    
+    public Shutdown getShutdown() {
+        return shutdown;
+    }
+    
+    public void setShutdown(Shutdown shutdown) {
+        this.shutdown = shutdown;
+    }
+    
+    public MapsEndpoint getMapsEndpoint() {
+        return mapsEndpoint;
+    }
+    
+    public void setMapsEndpoint(MapsEndpoint mapsEndpoint) {
+        this.mapsEndpoint = mapsEndpoint;
+    }
+    
+    public enum Mode {
+        EMBEDDED, // every Camunda node is a full data member
+        LITE_MEMBER, // Camunda nodes join the cluster but own no partitions
+        CLIENT // Camunda nodes connect to a separate data tier
+    }
+    
+    public static class Client {
+        private List<String> addresses = new ArrayList<>(List.of("127.0.0.1:5701"));
+        private boolean smartRouting = true; // send each operation straight to the partition owner
+        private int connectionTimeoutMillis = 5000;
+        private long clusterConnectTimeoutMillis = 30000; // give up starting if the data tier stays unreachable
+        
+        public List<String> getAddresses() {
+            return addresses;
+        }
+        
+        public void setAddresses(List<String> addresses) {
+            this.addresses = addresses;
+        }
+        
+        public boolean isSmartRouting() {
+            return smartRouting;
+        }
+        
+        public void setSmartRouting(boolean smartRouting) {
+            this.smartRouting = smartRouting;
+        }
+        
+        public int getConnectionTimeoutMillis() {
+            return connectionTimeoutMillis;
+        }
+        
+        public void setConnectionTimeoutMillis(int connectionTimeoutMillis) {
+            this.connectionTimeoutMillis = connectionTimeoutMillis;
+        }
+        
+        public long getClusterConnectTimeoutMillis() {
+            return clusterConnectTimeoutMillis;
+        }
+        
+        public void setClusterConnectTimeoutMillis(long clusterConnectTimeoutMillis) {
+            this.clusterConnectTimeoutMillis = clusterConnectTimeoutMillis;
+        }
+    }
+    
+    public static class Network {
+        private int port = 5701;
+        private boolean portAutoIncrement = true;
+        private int portCount = 100;
+        private Join join = new Join();
+        
+        public int getPort() {
+            return port;
+        }
+        
+        public void setPort(int port) {
+            this.port = port;
+        }
+        
+        public boolean isPortAutoIncrement() {
+            return portAutoIncrement;
+        }
+        
+        public void setPortAutoIncrement(boolean portAutoIncrement) {
+            this.portAutoIncrement = portAutoIncrement;
+        }
+        
+        public int getPortCount() {
+            return portCount;
+        }
+        
+        public void setPortCount(int portCount) {
+            this.portCount = portCount;
+        }
+        
+        public Join getJoin() {
+            return join;
+        }
+        
+        public void setJoin(Join join) {
+            this.join = join;
+        }
+    }
+    
+    /**
+     * How members find each other. At most one of multicast, tcp-ip and discovery may be
+     * enabled; with none of them the member starts standalone.
+     */
+    public static class Join {
+        private int waitSecondsBeforeJoin = 1; // Hazelcast waits 5s by default before joining
+        private int maxWaitSecondsBeforeJoin = 5;
+        private boolean autoDetection = false; // probes cloud environments, then falls back to multicast
+        private Multicast multicast = new Multicast();
+        private TcpIp tcpIp = new TcpIp();
+        private Discovery discovery = new Discovery();
+        
+        public int getWaitSecondsBeforeJoin() {
+            return waitSecondsBeforeJoin;
+        }
+        
+        public void setWaitSecondsBeforeJoin(int waitSecondsBeforeJoin) {
+            this.waitSecondsBeforeJoin = waitSecondsBeforeJoin;
+        }
+        
+        public int getMaxWaitSecondsBeforeJoin() {
+            return maxWaitSecondsBeforeJoin;
+        }
+        
+        public void setMaxWaitSecondsBeforeJoin(int maxWaitSecondsBeforeJoin) {
+            this.maxWaitSecondsBeforeJoin = maxWaitSecondsBeforeJoin;
+        }
+        
+        public boolean isAutoDetection() {
+            return autoDetection;
+        }
+        
+        public void setAutoDetection(boolean autoDetection) {
+            this.autoDetection = autoDetection;
+        }
+        
+        public Multicast getMulticast() {
+            return multicast;
+        }
+        
+        public void setMulticast(Multicast multicast) {
+            this.multicast = multicast;
+        }
+        
+        public TcpIp getTcpIp() {
+            return tcpIp;
+        }
+        
+        public void setTcpIp(TcpIp tcpIp) {
+            this.tcpIp = tcpIp;
+        }
+        
+        public Discovery getDiscovery() {
+            return discovery;
+        }
+        
+        public void setDiscovery(Discovery discovery) {
+            this.discovery = discovery;
+        }
+    }
+    
+    public static class Multicast {
+        private boolean enabled = false;
+        private int timeoutSeconds = 2;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+        
+        public void setTimeoutSeconds(int timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+    }
+    
+    public static class TcpIp {
+        private boolean enabled = false;
+        private List<String> members = new ArrayList<>(); // host or host:port, e.g. 10.0.0.1:5701
+        private int connectionTimeoutSeconds = 2;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public List<String> getMembers() {
+            return members;
+        }
+        
+        public void setMembers(List<String> members) {
+            this.members = members;
+        }
+        
+        public int getConnectionTimeoutSeconds() {
+            return connectionTimeoutSeconds;
+        }
+        
+        public void setConnectionTimeoutSeconds(int connectionTimeoutSeconds) {
+            this.connectionTimeoutSeconds = connectionTimeoutSeconds;
+        }
+    }
+    
+    public static class Discovery {
+        private boolean enabled = false;
+        private String serviceDns = "localhost"; // e.g. a Kubernetes headless service; localhost for local runs
+        private int servicePort = 5701;
+        private int resolveTimeoutSeconds = 2;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getServiceDns() {
+            return serviceDns;
+        }
+        
+        public void setServiceDns(String serviceDns) {
+            this.serviceDns = serviceDns;
+        }
+        
+        public int getServicePort() {
+            return servicePort;
+        }
+        
+        public void setServicePort(int servicePort) {
+            this.servicePort = servicePort;
+        }
+        
+        public int getResolveTimeoutSeconds() {
+            return resolveTimeoutSeconds;
+        }
+        
+        public void setResolveTimeoutSeconds(int resolveTimeoutSeconds) {
+            this.resolveTimeoutSeconds = resolveTimeoutSeconds;
+        }
+    }
+    
+    /**
+     * Name and tuning of one workflow map. Process definitions listed here, or flow elements
+     * carrying a {@code hazelcast.map} extension property naming it, hand off through this map.
+     */
+    public static class MapProfile {
+        private String name;
+        private List<String> processDefinitionKeys = new ArrayList<>();
         private int backupCount = 1;
+        private int asyncBackupCount = 0;
+        private boolean readBackupData = false; // serve reads from local backups, may return stale values
         private int timeToLiveSeconds = 0; // 0 = no expiration
+        private InMemoryFormat inMemoryFormat = InMemoryFormat.BINARY;
+        private MaxSize maxSize = new MaxSize();
+        private Eviction eviction = new Eviction();
+        private NearCache nearCache = new NearCache();
+        private List<Index> indexes = new ArrayList<>();
+        private Persistence persistence = new Persistence();
         
         public String getName() {
             return name;
@@ -57,6 +402,14 @@ public class HazelcastProperties {
             this.name = name;
         }
         
+        public List<String> getProcessDefinitionKeys() {
+            return processDefinitionKeys;
+        }
+        
+        public void setProcessDefinitionKeys(List<String> processDefinitionKeys) {
+            this.processDefinitionKeys = processDefinitionKeys;
+        }
+        
         public int getBackupCount() {
             return backupCount;
         }
@@ -65,6 +418,275 @@ public class HazelcastProperties {
             this.backupCount = backupCount;
         }
         
+        public int getAsyncBackupCount() {
+            return asyncBackupCount;
+        }
+        
+        public void setAsyncBackupCount(int asyncBackupCount) {
+            this.asyncBackupCount = asyncBackupCount;
+        }
+        
+        public boolean isReadBackupData() {
+            return readBackupData;
+        }
+        
+        public void setReadBackupData(boolean readBackupData) {
+            this.readBackupData = readBackupData;
+        }
+        
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+        
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+        
+        public InMemoryFormat getInMemoryFormat() {
+            return inMemoryFormat;
+        }
+        
+        public void setInMemoryFormat(InMemoryFormat inMemoryFormat) {
+            this.inMemoryFormat = inMemoryFormat;
+        }
+        
+        public MaxSize getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(MaxSize maxSize) {
+            this.maxSize = maxSize;
+        }
+        
+        public Eviction getEviction() {
+            return eviction;
+        }
+        
+        public void setEviction(Eviction eviction) {
+            this.eviction = eviction;
+        }
+        
+        public NearCache getNearCache() {
+            return nearCache;
+        }
+        
+        public void setNearCache(NearCache nearCache) {
+            this.nearCache = nearCache;
+        }
+        
+        public List<Index> getIndexes() {
+            return indexes;
+        }
+        
+        public void setIndexes(List<Index> indexes) {
+            this.indexes = indexes;
+        }
+        
+        public Persistence getPersistence() {
+            return persistence;
+        }
+        
+        public void setPersistence(Persistence persistence) {
+            this.persistence = persistence;
+        }
+    }
+    
+    /**
+     * The default workflow map, used by every process definition without a more specific
+     * profile, plus the handoff settings shared by all workflow maps.
+     */
+    public static class Map extends MapProfile {
+        private boolean consumeOnRead = true; // read and remove in one partition operation
+        private boolean transactionalWrites = false; // defer writes until the engine transaction commits
+        private Batching batching = new Batching();
+        private Chunking chunking = new Chunking();
+        private Cleanup cleanup = new Cleanup();
+        
+        public Map() {
+            setName("myMap");
+        }
+        
+        public boolean isConsumeOnRead() {
+            return consumeOnRead;
+        }
+        
+        public void setConsumeOnRead(boolean consumeOnRead) {
+            this.consumeOnRead = consumeOnRead;
+        }
+        
+        public boolean isTransactionalWrites() {
+            return transactionalWrites;
+        }
+        
+        public void setTransactionalWrites(boolean transactionalWrites) {
+            this.transactionalWrites = transactionalWrites;
+        }
+        
+        public Batching getBatching() {
+            return batching;
+        }
+        
+        public void setBatching(Batching batching) {
+            this.batching = batching;
+        }
+        
+        public Chunking getChunking() {
+            return chunking;
+        }
+        
+        public void setChunking(Chunking chunking) {
+            this.chunking = chunking;
+        }
+        
+        public Cleanup getCleanup() {
+            return cleanup;
+        }
+        
+        public void setCleanup(Cleanup cleanup) {
+            this.cleanup = cleanup;
+        }
+    }
+    
+    public enum InitialLoad {
+        NONE, // no preload, entries are read back from the database on a miss only
+        LAZY, // loaded partition-parallel in the background once the application is ready
+        EAGER // loaded completely before the map is first returned, blocking startup
+    }
+    
+    public static class Persistence {
+        private boolean enabled = false; // write-behind to spring.datasource
+        private String table = "hazelcast_handoff";
+        private int writeDelaySeconds = 1; // 0 would make it write-through
+        private int writeBatchSize = 500;
+        private boolean writeCoalescing = true; // only the latest update of a key is written
+        private InitialLoad initialLoad = InitialLoad.LAZY;
+        private int purgeIntervalSeconds = 3600; // deletes rows older than the map TTL; 0 = never
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getTable() {
+            return table;
+        }
+        
+        public void setTable(String table) {
+            this.table = table;
+        }
+        
+        public int getWriteDelaySeconds() {
+            return writeDelaySeconds;
+        }
+        
+        public void setWriteDelaySeconds(int writeDelaySeconds) {
+            this.writeDelaySeconds = writeDelaySeconds;
+        }
+        
+        public int getWriteBatchSize() {
+            return writeBatchSize;
+        }
+        
+        public void setWriteBatchSize(int writeBatchSize) {
+            this.writeBatchSize = writeBatchSize;
+        }
+        
+        public boolean isWriteCoalescing() {
+            return writeCoalescing;
+        }
+        
+        public void setWriteCoalescing(boolean writeCoalescing) {
+            this.writeCoalescing = writeCoalescing;
+        }
+        
+        public InitialLoad getInitialLoad() {
+            return initialLoad;
+        }
+        
+        public void setInitialLoad(InitialLoad initialLoad) {
+            this.initialLoad = initialLoad;
+        }
+        
+        public int getPurgeIntervalSeconds() {
+            return purgeIntervalSeconds;
+        }
+        
+        public void setPurgeIntervalSeconds(int purgeIntervalSeconds) {
+            this.purgeIntervalSeconds = purgeIntervalSeconds;
+        }
+    }
+    
+    public static class MaxSize {
+        private MaxSizePolicy policy = MaxSizePolicy.PER_NODE;
+        private int value = Integer.MAX_VALUE; // entry count, MB or heap percentage depending on the policy
+        
+        public MaxSizePolicy getPolicy() {
+            return policy;
+        }
+        
+        public void setPolicy(MaxSizePolicy policy) {
+            this.policy = policy;
+        }
+        
+        public int getValue() {
+            return value;
+        }
+        
+        public void setValue(int value) {
+            this.value = value;
+        }
+    }
+    
+    public static class Eviction {
+        private EvictionPolicy policy = EvictionPolicy.NONE;
+        private Integer maxSizeCheckIntervalSeconds; // Hazelcast 3.x setting, accepted but ignored
+        
+        public EvictionPolicy getPolicy() {
+            return policy;
+        }
+        
+        public void setPolicy(EvictionPolicy policy) {
+            this.policy = policy;
+        }
+        
+        public Integer getMaxSizeCheckIntervalSeconds() {
+            return maxSizeCheckIntervalSeconds;
+        }
+        
+        public void setMaxSizeCheckIntervalSeconds(Integer maxSizeCheckIntervalSeconds) {
+            this.maxSizeCheckIntervalSeconds = maxSizeCheckIntervalSeconds;
+        }
+    }
+    
+    public static class NearCache {
+        private boolean enabled = false;
+        private InMemoryFormat inMemoryFormat = InMemoryFormat.OBJECT;
+        private int timeToLiveSeconds = 0;
+        private int maxIdleSeconds = 0;
+        private boolean invalidateOnChange = true;
+        private boolean cacheLocalEntries = false;
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+        private int maxEntries = 10000; // per member, near caches only support ENTRY_COUNT
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public InMemoryFormat getInMemoryFormat() {
+            return inMemoryFormat;
+        }
+        
+        public void setInMemoryFormat(InMemoryFormat inMemoryFormat) {
+            this.inMemoryFormat = inMemoryFormat;
+        }
+        
         public int getTimeToLiveSeconds() {
             return timeToLiveSeconds;
         }
@@ -72,6 +694,184 @@ public class HazelcastProperties {
         public void setTimeToLiveSeconds(int timeToLiveSeconds) {
             this.timeToLiveSeconds = timeToLiveSeconds;
         }
+        
+        public int getMaxIdleSeconds() {
+            return maxIdleSeconds;
+        }
+        
+        public void setMaxIdleSeconds(int maxIdleSeconds) {
+            this.maxIdleSeconds = maxIdleSeconds;
+        }
+        
+        public boolean isInvalidateOnChange() {
+            return invalidateOnChange;
+        }
+        
+        public void setInvalidateOnChange(boolean invalidateOnChange) {
+            this.invalidateOnChange = invalidateOnChange;
+        }
+        
+        public boolean isCacheLocalEntries() {
+            return cacheLocalEntries;
+        }
+        
+        public void setCacheLocalEntries(boolean cacheLocalEntries) {
+            this.cacheLocalEntries = cacheLocalEntries;
+        }
+        
+        public EvictionPolicy getEvictionPolicy() {
+            return evictionPolicy;
+        }
+        
+        public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+        }
+        
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+        
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+    
+    public static class Index {
+        private String name;
+        private IndexType type = IndexType.SORTED;
+        private List<String> attributes = new ArrayList<>(); // e.g. __key.processInstanceId
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public IndexType getType() {
+            return type;
+        }
+        
+        public void setType(IndexType type) {
+            this.type = type;
+        }
+        
+        public List<String> getAttributes() {
+            return attributes;
+        }
+        
+        public void setAttributes(List<String> attributes) {
+            this.attributes = attributes;
+        }
+    }
+    
+    public static class Cleanup {
+        private boolean enabled = true; // remove entries of ended or cancelled process instances
+        private int maxBatchSize = 500; // ended instances removed per pass
+        private long maxDelayMillis = 200; // how long a pass waits for more ended instances
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+        
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+        
+        public long getMaxDelayMillis() {
+            return maxDelayMillis;
+        }
+        
+        public void setMaxDelayMillis(long maxDelayMillis) {
+            this.maxDelayMillis = maxDelayMillis;
+        }
+    }
+    
+    public static class Chunking {
+        private boolean enabled = true;
+        private String mapName = "myMap-chunks";
+        private int thresholdBytes = 1024 * 1024; // payloads at or above this size are chunked
+        private int chunkSizeBytes = 256 * 1024; // well below half a 16m G1 region
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getMapName() {
+            return mapName;
+        }
+        
+        public void setMapName(String mapName) {
+            this.mapName = mapName;
+        }
+        
+        public int getThresholdBytes() {
+            return thresholdBytes;
+        }
+        
+        public void setThresholdBytes(int thresholdBytes) {
+            this.thresholdBytes = thresholdBytes;
+        }
+        
+        public int getChunkSizeBytes() {
+            return chunkSizeBytes;
+        }
+        
+        public void setChunkSizeBytes(int chunkSizeBytes) {
+            this.chunkSizeBytes = chunkSizeBytes;
+        }
+    }
+    
+    public static class Batching {
+        private boolean enabled = false;
+        private int maxBatchSize = 100;
+        private long maxDelayMicros = 200;
+        private long ackTimeoutMillis = 30000;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+        
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+        
+        public long getMaxDelayMicros() {
+            return maxDelayMicros;
+        }
+        
+        public void setMaxDelayMicros(long maxDelayMicros) {
+            this.maxDelayMicros = maxDelayMicros;
+        }
+        
+        public long getAckTimeoutMillis() {
+            return ackTimeoutMillis;
+        }
+        
+        public void setAckTimeoutMillis(long ackTimeoutMillis) {
+            this.ackTimeoutMillis = ackTimeoutMillis;
+        }
     }
     
     public static class Session {
@@ -80,6 +880,18 @@ public class HazelcastProperties {
         private String cookieName = "CAMUNDA_SESSION";
         private boolean cookieSecure = true;
         private boolean cookieHttpOnly = true;
+        private NearCache nearCache = new NearCache();
+        private AccessTimeCoalescing accessTimeCoalescing = new AccessTimeCoalescing();
+        private boolean customSerialization = true; // MapSession and Camunda logins without Java serialization
+        private boolean principalNameIndex = false; // needed by findByPrincipalName, costs an extraction per write
+        private boolean affinity = false; // publish session partition owners for the web proxy
+        private int nearCacheInvalidationSeconds = 1; // upper bound for serving a stale session from another node's near cache
+        
+        public Session() {
+            // Off by default: other nodes learn of session changes only through batched invalidations
+            nearCache.setInMemoryFormat(InMemoryFormat.BINARY);
+            nearCache.setCacheLocalEntries(true);
+        }
         
         public String getMapName() {
             return mapName;
@@ -120,5 +932,233 @@ public class HazelcastProperties {
         public void setCookieHttpOnly(boolean cookieHttpOnly) {
             this.cookieHttpOnly = cookieHttpOnly;
         }
+        
+        public NearCache getNearCache() {
+            return nearCache;
+        }
+        
+        public void setNearCache(NearCache nearCache) {
+            this.nearCache = nearCache;
+        }
+        
+        public AccessTimeCoalescing getAccessTimeCoalescing() {
+            return accessTimeCoalescing;
+        }
+        
+        public void setAccessTimeCoalescing(AccessTimeCoalescing accessTimeCoalescing) {
+            this.accessTimeCoalescing = accessTimeCoalescing;
+        }
+        
+        public boolean isCustomSerialization() {
+            return customSerialization;
+        }
+        
+        public void setCustomSerialization(boolean customSerialization) {
+            this.customSerialization = customSerialization;
+        }
+        
+        public boolean isPrincipalNameIndex() {
+            return principalNameIndex;
+        }
+        
+        public void setPrincipalNameIndex(boolean principalNameIndex) {
+            this.principalNameIndex = principalNameIndex;
+        }
+        
+        public boolean isAffinity() {
+            return affinity;
+        }
+        
+        public void setAffinity(boolean affinity) {
+            this.affinity = affinity;
+        }
+        
+        public int getNearCacheInvalidationSeconds() {
+            return nearCacheInvalidationSeconds;
+        }
+        
+        public void setNearCacheInvalidationSeconds(int nearCacheInvalidationSeconds) {
+            this.nearCacheInvalidationSeconds = nearCacheInvalidationSeconds;
+        }
+    }
+    
+    public static class AccessTimeCoalescing {
+        private boolean enabled = false; // skip saves that would only move lastAccessedTime
+        private double writeFraction = 0.1; // of max-inactive-interval the stored access time may lag behind
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public double getWriteFraction() {
+            return writeFraction;
+        }
+        
+        public void setWriteFraction(double writeFraction) {
+            this.writeFraction = writeFraction;
+        }
+    }
+    
+    public static class Async {
+        private int completionPoolSize = 4;
+        private int completionQueueCapacity = 10000;
+        private int recoveryDelaySeconds = 60; // until a handoff whose signal never committed is redone by a job
+        
+        public int getCompletionPoolSize() {
+            return completionPoolSize;
+        }
+        
+        public void setCompletionPoolSize(int completionPoolSize) {
+            this.completionPoolSize = completionPoolSize;
+        }
+        
+        public int getCompletionQueueCapacity() {
+            return completionQueueCapacity;
+        }
+        
+        public void setCompletionQueueCapacity(int completionQueueCapacity) {
+            this.completionQueueCapacity = completionQueueCapacity;
+        }
+        
+        public int getRecoveryDelaySeconds() {
+            return recoveryDelaySeconds;
+        }
+        
+        public void setRecoveryDelaySeconds(int recoveryDelaySeconds) {
+            this.recoveryDelaySeconds = recoveryDelaySeconds;
+        }
+    }
+    
+    public static class MapsEndpoint {
+        private String token; // required by runtime map config updates; unset = read-only
+        
+        public String getToken() {
+            return token;
+        }
+        
+        public void setToken(String token) {
+            this.token = token;
+        }
+    }
+    
+    public static class Shutdown {
+        private boolean enabled = true; // drain and leave the cluster before the Spring context closes
+        private int drainTimeoutSeconds = 30; // in-flight jobs and handoffs
+        private int safeStateTimeoutSeconds = 30; // backups of local partitions in sync
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getDrainTimeoutSeconds() {
+            return drainTimeoutSeconds;
+        }
+        
+        public void setDrainTimeoutSeconds(int drainTimeoutSeconds) {
+            this.drainTimeoutSeconds = drainTimeoutSeconds;
+        }
+        
+        public int getSafeStateTimeoutSeconds() {
+            return safeStateTimeoutSeconds;
+        }
+        
+        public void setSafeStateTimeoutSeconds(int safeStateTimeoutSeconds) {
+            this.safeStateTimeoutSeconds = safeStateTimeoutSeconds;
+        }
+    }
+    
+    public static class Serialization {
+        private List<String> compactClasses = new ArrayList<>(); // payload types stored with reflective Compact
+        private boolean javaFallback = true; // allow Java serialization for unregistered Serializable payloads
+        private boolean enableCompression = false; // deflate byte[]/String payloads before writing them
+        private int compressionThresholdBytes = 4096; // smaller payloads are stored as-is
+        private int compressionLevel = 1; // java.util.zip.Deflater level, 1 = BEST_SPEED
+        
+        public List<String> getCompactClasses() {
+            return compactClasses;
+        }
+        
+        public void setCompactClasses(List<String> compactClasses) {
+            this.compactClasses = compactClasses;
+        }
+        
+        public boolean isJavaFallback() {
+            return javaFallback;
+        }
+        
+        public void setJavaFallback(boolean javaFallback) {
+            this.javaFallback = javaFallback;
+        }
+        
+        public boolean isEnableCompression() {
+            return enableCompression;
+        }
+        
+        public void setEnableCompression(boolean enableCompression) {
+            this.enableCompression = enableCompression;
+        }
+        
+        public int getCompressionThresholdBytes() {
+            return compressionThresholdBytes;
+        }
+        
+        public void setCompressionThresholdBytes(int compressionThresholdBytes) {
+            this.compressionThresholdBytes = compressionThresholdBytes;
+        }
+        
+        public int getCompressionLevel() {
+            return compressionLevel;
+        }
+        
+        public void setCompressionLevel(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+        }
+    }
+    
+    public static class Variables {
+        private boolean enabled = true;
+        private String mapName = "camunda-variables";
+        private int backupCount = 1;
+        private int timeToLiveSeconds = 2592000; // 30 days, safety net for payloads no command deleted; 0 = no expiration
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getMapName() {
+            return mapName;
+        }
+        
+        public void setMapName(String mapName) {
+            this.mapName = mapName;
+        }
+        
+        public int getBackupCount() {
+            return backupCount;
+        }
+        
+        public void setBackupCount(int backupCount) {
+            this.backupCount = backupCount;
+        }
+        
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+        
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
     }
 }
\ No newline at end of file
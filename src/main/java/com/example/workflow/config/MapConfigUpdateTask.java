@@ -0,0 +1,110 @@
+package com.example.workflow.config;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceAware;
+import com.hazelcast.instance.impl.HazelcastInstanceImpl;
+import com.hazelcast.instance.impl.HazelcastInstanceProxy;
+import com.hazelcast.internal.config.MapConfigReadOnly;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Runs on a member and changes the TTL, max idle time or eviction size of a live map.
+ * Hazelcast's dynamic config only adds new configs, so this swaps the config held by the
+ * member's map container, which is internal API. It is limited to settings that are read
+ * per operation: TTL and max idle apply to entries written afterwards, the size limit once
+ * the evictor is rebuilt. Backup counts and policies size partition replicas and record
+ * stores, so they are left to application.yaml and a rolling restart.
+ * Fields left null are kept; with none set the task only reports the effective config.
+ */
+class MapConfigUpdateTask implements Callable<Map<String, Object>>, Serializable, HazelcastInstanceAware {
+    
+    private static final long serialVersionUID = 2L;
+    
+    private final String mapName;
+    private final Integer timeToLiveSeconds;
+    private final Integer maxIdleSeconds;
+    private final Integer maxSize;
+    
+    private transient HazelcastInstance hazelcastInstance;
+    
+    MapConfigUpdateTask(String mapName, Integer timeToLiveSeconds, Integer maxIdleSeconds, Integer maxSize) {
+        this.mapName = mapName;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.maxIdleSeconds = maxIdleSeconds;
+        this.maxSize = maxSize;
+    }
+    
+    static MapConfigUpdateTask report(String mapName) {
+        return new MapConfigUpdateTask(mapName, null, null, null);
+    }
+    
+    /**
+     * Combines this update with a later one, the later one winning where both set a field.
+     */
+    MapConfigUpdateTask followedBy(MapConfigUpdateTask later) {
+        return new MapConfigUpdateTask(mapName,
+            later.timeToLiveSeconds != null ? later.timeToLiveSeconds : timeToLiveSeconds,
+            later.maxIdleSeconds != null ? later.maxIdleSeconds : maxIdleSeconds,
+            later.maxSize != null ? later.maxSize : maxSize);
+    }
+    
+    @Override
+    public void setHazelcastInstance(HazelcastInstance hazelcastInstance) {
+        this.hazelcastInstance = hazelcastInstance;
+    }
+    
+    @Override
+    public Map<String, Object> call() {
+        MapService mapService = original(hazelcastInstance).node.getNodeEngine().getService(MapService.SERVICE_NAME);
+        MapContainer mapContainer = mapService.getMapServiceContext().getMapContainer(mapName);
+        
+        synchronized (mapContainer) {
+            if (isUpdate()) {
+                MapConfig updated = new MapConfig(mapContainer.getMapConfig());
+                if (timeToLiveSeconds != null) {
+                    updated.setTimeToLiveSeconds(timeToLiveSeconds);
+                }
+                if (maxIdleSeconds != null) {
+                    updated.setMaxIdleSeconds(maxIdleSeconds);
+                }
+                if (maxSize != null) {
+                    updated.getEvictionConfig().setSize(maxSize);
+                }
+                mapContainer.setMapConfig(new MapConfigReadOnly(updated));
+                if (maxSize != null) {
+                    // The evictor caches the max-size checker, rebuild it for the new limit
+                    mapContainer.initEvictor();
+                }
+            }
+            return describe(mapContainer.getMapConfig());
+        }
+    }
+    
+    private boolean isUpdate() {
+        return timeToLiveSeconds != null || maxIdleSeconds != null || maxSize != null;
+    }
+    
+    static Map<String, Object> describe(MapConfig mapConfig) {
+        Map<String, Object> effective = new LinkedHashMap<>();
+        effective.put("timeToLiveSeconds", mapConfig.getTimeToLiveSeconds());
+        effective.put("maxIdleSeconds", mapConfig.getMaxIdleSeconds());
+        effective.put("backupCount", mapConfig.getBackupCount());
+        effective.put("asyncBackupCount", mapConfig.getAsyncBackupCount());
+        effective.put("evictionPolicy", mapConfig.getEvictionConfig().getEvictionPolicy().name());
+        effective.put("maxSizePolicy", mapConfig.getEvictionConfig().getMaxSizePolicy().name());
+        effective.put("maxSize", mapConfig.getEvictionConfig().getSize());
+        effective.put("inMemoryFormat", mapConfig.getInMemoryFormat().name());
+        return effective;
+    }
+    
+    private static HazelcastInstanceImpl original(HazelcastInstance instance) {
+        return instance instanceof HazelcastInstanceProxy proxy ? proxy.getOriginal() : (HazelcastInstanceImpl) instance;
+    }
+}
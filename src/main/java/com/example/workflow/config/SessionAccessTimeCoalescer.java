@@ -0,0 +1,171 @@
+package com.example.workflow.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Wraps the Hazelcast session repository so that a request which only touches the session
+ * does not write it back. SessionRepositoryFilter moves lastAccessedTime forward on every
+ * request and saves the session afterwards, which costs an entry processor call on the owner
+ * and its backup even for pure reads. Sessions read through the repository are wrapped so
+ * that the new access time is only recorded, and it is written once the stored one lags
+ * behind by at least {@code writeFraction} of maxInactiveInterval, or together with any
+ * other change.
+ *
+ * The stored access time, and with it the map entry's TTL, can then trail the real last
+ * access by up to that fraction, so an idle session expires that much earlier at most.
+ * Changes are detected through the Session API, which matches Spring Session's
+ * {@code save-mode: on-set-attribute}.
+ */
+public class SessionAccessTimeCoalescer implements MethodInterceptor {
+    
+    private final double writeFraction;
+    private final Counter written;
+    private final Counter coalesced;
+    
+    public SessionAccessTimeCoalescer(double writeFraction, MeterRegistry meterRegistry) {
+        this.writeFraction = writeFraction;
+        this.written = Counter.builder("workflow.hazelcast.session.saves")
+            .description("Saves of existing sessions, written to the cluster or coalesced into a later write")
+            .tag("outcome", "written")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("workflow.hazelcast.session.saves")
+            .description("Saves of existing sessions, written to the cluster or coalesced into a later write")
+            .tag("outcome", "coalesced")
+            .register(meterRegistry);
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        switch (invocation.getMethod().getName()) {
+            case "findById" -> {
+                Object session = invocation.proceed();
+                return session != null ? new CoalescingSession((Session) session) : null;
+            }
+            case "save" -> {
+                if (invocation.getArguments()[0] instanceof CoalescingSession session) {
+                    if (!session.needsWrite(writeFraction)) {
+                        coalesced.increment();
+                        return null;
+                    }
+                    session.applyAccessTime();
+                    ((ProxyMethodInvocation) invocation).setArguments(session.delegate);
+                    written.increment();
+                }
+                return invocation.proceed();
+            }
+            default -> {
+                return invocation.proceed();
+            }
+        }
+    }
+    
+    /**
+     * Session that holds back access time updates until the repository decides to write them.
+     */
+    static final class CoalescingSession implements Session {
+        
+        private final Session delegate;
+        private final Instant storedLastAccessedTime;
+        private Instant pendingLastAccessedTime;
+        private boolean changed;
+        
+        CoalescingSession(Session delegate) {
+            this.delegate = delegate;
+            this.storedLastAccessedTime = delegate.getLastAccessedTime();
+        }
+        
+        boolean needsWrite(double writeFraction) {
+            if (changed) {
+                return true;
+            }
+            Duration maxInactiveInterval = delegate.getMaxInactiveInterval();
+            if (pendingLastAccessedTime == null || maxInactiveInterval.isNegative()) {
+                // Nothing new, or a session that never expires by inactivity
+                return false;
+            }
+            long thresholdMillis = (long) (maxInactiveInterval.toMillis() * writeFraction);
+            return Duration.between(storedLastAccessedTime, pendingLastAccessedTime).toMillis() >= thresholdMillis;
+        }
+        
+        void applyAccessTime() {
+            if (pendingLastAccessedTime != null) {
+                delegate.setLastAccessedTime(pendingLastAccessedTime);
+            }
+        }
+        
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+        
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return delegate.changeSessionId();
+        }
+        
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+        
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+        
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            changed = true;
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+        
+        @Override
+        public void removeAttribute(String attributeName) {
+            changed = true;
+            delegate.removeAttribute(attributeName);
+        }
+        
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+        
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            pendingLastAccessedTime = lastAccessedTime;
+        }
+        
+        @Override
+        public Instant getLastAccessedTime() {
+            return pendingLastAccessedTime != null ? pendingLastAccessedTime : delegate.getLastAccessedTime();
+        }
+        
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            changed = true;
+            delegate.setMaxInactiveInterval(interval);
+        }
+        
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+        
+        @Override
+        public boolean isExpired() {
+            Duration maxInactiveInterval = getMaxInactiveInterval();
+            return !maxInactiveInterval.isNegative()
+                && Instant.now().minus(maxInactiveInterval).compareTo(getLastAccessedTime()) >= 0;
+        }
+    }
+}
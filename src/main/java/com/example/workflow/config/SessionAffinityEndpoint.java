@@ -0,0 +1,91 @@
+package com.example.workflow.config;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.partition.Partition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Actuator endpoint publishing which node owns each partition of the session map, so the
+ * web proxy can send a request to the node that holds its session instead of one that has
+ * to fetch it over the network. The proxy hashes the session id the way Hazelcast does
+ * (see webproxy/session_affinity.js) and looks the partition up in this table. Any member
+ * can answer for the whole cluster.
+ *
+ * Members publish their HTTP port as a member attribute. Partitions owned by a member
+ * without one, e.g. a data tier in client mode, are reported as -1 and the proxy balances
+ * those requests as before. A stale table only costs locality: every node can serve every
+ * session.
+ *
+ * GET /actuator/sessionaffinity               partition count, HTTP address per member, owner per partition
+ * GET /actuator/sessionaffinity/{sessionId}   partition and owner of one session
+ */
+@Component
+@Endpoint(id = "sessionaffinity")
+@ConditionalOnProperty(prefix = "hazelcast.session", name = "affinity", havingValue = "true")
+public class SessionAffinityEndpoint {
+    
+    public static final String HTTP_PORT_ATTRIBUTE = "workflow.http-port";
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @ReadOperation
+    public Map<String, Object> partitionTable() {
+        List<String> members = new ArrayList<>();
+        Map<Member, Integer> memberIndexes = new LinkedHashMap<>();
+        for (Member member : hazelcastInstance.getCluster().getMembers()) {
+            String httpAddress = httpAddress(member);
+            if (httpAddress != null && !member.isLiteMember()) {
+                memberIndexes.put(member, members.size());
+                members.add(httpAddress);
+            }
+        }
+        
+        Set<Partition> partitions = hazelcastInstance.getPartitionService().getPartitions();
+        int[] owners = new int[partitions.size()];
+        int[] ownedPartitions = new int[members.size()];
+        for (Partition partition : partitions) {
+            Integer owner = partition.getOwner() != null ? memberIndexes.get(partition.getOwner()) : null;
+            owners[partition.getPartitionId()] = owner != null ? owner : -1;
+            if (owner != null) {
+                ownedPartitions[owner]++;
+            }
+        }
+        
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("partitionCount", partitions.size());
+        table.put("members", members);
+        table.put("ownedPartitions", ownedPartitions);
+        table.put("owners", owners);
+        return table;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> session(@Selector String sessionId) {
+        Partition partition = hazelcastInstance.getPartitionService().getPartition(sessionId);
+        Member owner = partition.getOwner();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sessionId", sessionId);
+        result.put("partitionId", partition.getPartitionId());
+        result.put("owner", owner != null ? httpAddress(owner) : null);
+        result.put("local", owner != null && owner.localMember());
+        return result;
+    }
+    
+    private static String httpAddress(Member member) {
+        String port = member.getAttribute(HTTP_PORT_ATTRIBUTE);
+        return port != null ? member.getAddress().getHost() + ":" + port : null;
+    }
+}
@@ -1,11 +1,49 @@
 package com.example.workflow.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.session.hazelcast.HazelcastIndexedSessionRepository;
 import org.springframework.session.hazelcast.config.annotation.web.http.EnableHazelcastHttpSession;
 
 @Configuration
 @ConditionalOnProperty(prefix = "hazelcast", name = "enabled", havingValue = "true", matchIfMissing = true)
 @EnableHazelcastHttpSession(sessionMapName = "spring-session-sessions")
 public class SessionConfig {
-}
\ No newline at end of file
+    
+    /**
+     * Proxies the session repository with {@link SessionAccessTimeCoalescer} when
+     * {@code hazelcast.session.access-time-coalescing.enabled} is set. The proxy subclasses the
+     * repository, so it can still be injected as a HazelcastIndexedSessionRepository.
+     */
+    @Bean
+    static BeanPostProcessor sessionAccessTimeCoalescing(ObjectProvider<HazelcastProperties> hazelcastProperties,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HazelcastIndexedSessionRepository)) {
+                    return bean;
+                }
+                HazelcastProperties.AccessTimeCoalescing coalescing =
+                    hazelcastProperties.getObject().getSession().getAccessTimeCoalescing();
+                if (!coalescing.isEnabled()) {
+                    return bean;
+                }
+                if (coalescing.getWriteFraction() <= 0 || coalescing.getWriteFraction() > 1) {
+                    throw new IllegalStateException("Invalid session configuration: "
+                        + "hazelcast.session.access-time-coalescing.write-fraction must be in (0, 1]");
+                }
+                
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(new SessionAccessTimeCoalescer(coalescing.getWriteFraction(), meterRegistry.getObject()));
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
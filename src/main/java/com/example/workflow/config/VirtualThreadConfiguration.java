@@ -0,0 +1,63 @@
+package com.example.workflow.config;
+
+import org.camunda.bpm.spring.boot.starter.property.CamundaBpmProperties;
+import org.camunda.bpm.spring.boot.starter.property.JobExecutionProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Runs Camunda jobs on virtual threads when {@code spring.threads.virtual.enabled} is set,
+ * which also moves Tomcat request handling onto virtual threads. Jobs spend most of their
+ * time waiting on Hazelcast round trips and JDBC, so a blocked job no longer holds a
+ * platform thread.
+ *
+ * The executor still caps concurrent jobs at {@code camunda.bpm.job-execution.max-pool-size}
+ * and rejects work beyond the queue, so job acquisition backs off exactly as it does with the
+ * default pool. On Java 21 a virtual thread that blocks inside a synchronized block keeps its
+ * carrier; {@link VirtualThreadPinningMonitor} reports where that happens and lowers the cap
+ * to the carrier count once a job pins.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+    
+    static final String JOB_THREAD_PREFIX = "camunda-job-";
+    
+    /**
+     * Replaces the starter's platform thread pool, which is only created when no bean of this
+     * name exists.
+     */
+    @Bean(name = "camundaTaskExecutor")
+    public TaskExecutor camundaTaskExecutor(CamundaBpmProperties camundaBpmProperties) {
+        JobExecutionProperty jobExecution = camundaBpmProperties.getJobExecution();
+        logger.info("Executing Camunda jobs on virtual threads, at most {} concurrently with {} queued",
+            jobExecution.getMaxPoolSize(), jobExecution.getQueueCapacity());
+        return jobExecutor(jobExecution.getMaxPoolSize(), jobExecution.getQueueCapacity());
+    }
+    
+    /**
+     * Pool of virtual threads with a fixed concurrency limit and a bounded queue. Pooling
+     * virtual threads buys nothing by itself; the pool is kept for its limit and for the
+     * RejectedExecutionException that Camunda's job executor relies on when saturated.
+     * Spring initializes the returned executor; callers outside the context must call
+     * {@code initialize()} themselves.
+     */
+    public static ThreadPoolTaskExecutor jobExecutor(int maxConcurrency, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(10);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadFactory(Thread.ofVirtual().name(JOB_THREAD_PREFIX, 0).factory());
+        return executor;
+    }
+}
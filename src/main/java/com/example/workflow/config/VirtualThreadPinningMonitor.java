@@ -0,0 +1,122 @@
+package com.example.workflow.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event, raised when a virtual thread blocks
+ * while pinned to its carrier, e.g. on I/O inside a synchronized block of engine or driver
+ * code. Each occurrence is counted in {@code workflow.virtual.pinned}, tagged with the first
+ * frame outside the JDK, and the first occurrence per frame is logged with its stack trace.
+ *
+ * Once a Camunda job is seen pinned, the job executor is limited to one job fewer than there
+ * are carrier threads, so pinned jobs can never hold every carrier and stall Tomcat and the
+ * other virtual threads. The limit stays until restart; fix or avoid the reported frame and
+ * restart to lift it.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    
+    // Short pins are harmless; only report those long enough to stall other virtual threads
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    @Qualifier("camundaTaskExecutor")
+    private ObjectProvider<TaskExecutor> camundaTaskExecutor;
+    
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+    
+    private final AtomicBoolean bounded = new AtomicBoolean();
+    
+    private RecordingStream recording;
+    
+    @PostConstruct
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable("jdk.VirtualThreadPinned")
+            .withThreshold(THRESHOLD)
+            .withStackTrace();
+        recording.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recording.startAsync();
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        String frame = firstApplicationFrame(event.getStackTrace());
+        meterRegistry.timer("workflow.virtual.pinned", "frame", frame).record(event.getDuration());
+        if (reportedFrames.add(frame)) {
+            logger.warn("Virtual thread pinned for {} ms at {}, the carrier was blocked for that long:\n{}",
+                event.getDuration().toMillis(), frame, event.getStackTrace());
+        }
+        RecordedThread thread = event.getThread();
+        if (thread != null && thread.getJavaName() != null
+                && thread.getJavaName().startsWith(VirtualThreadConfiguration.JOB_THREAD_PREFIX)) {
+            boundJobExecutor(frame);
+        }
+    }
+    
+    private void boundJobExecutor(String frame) {
+        TaskExecutor executor = camundaTaskExecutor.getIfAvailable();
+        if (!(executor instanceof ThreadPoolTaskExecutor pool) || !bounded.compareAndSet(false, true)) {
+            return;
+        }
+        int limit = Math.max(1, carrierCount() - 1);
+        if (pool.getMaxPoolSize() > limit) {
+            logger.warn("Camunda job pinned its carrier at {}, limiting the job executor from {} to {} concurrent jobs",
+                frame, pool.getMaxPoolSize(), limit);
+            // Lower the core size first, the pool rejects a maximum below it
+            pool.setCorePoolSize(limit);
+            pool.setMaxPoolSize(limit);
+        }
+    }
+    
+    static int carrierCount() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+    
+    private static String firstApplicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
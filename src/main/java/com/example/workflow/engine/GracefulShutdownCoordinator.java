@@ -0,0 +1,186 @@
+package com.example.workflow.engine;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.example.workflow.tasks.BatchingMapWriter;
+import com.example.workflow.tasks.HandoffCompletionExecutor;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.partition.PartitionService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Takes a node out of service in an order that keeps partition migration away from running
+ * handoffs: stop acquiring jobs, let running jobs and asynchronous handoffs finish, flush the
+ * write-behind helpers, wait until the backups of local partitions are in sync and only then
+ * shut down the Hazelcast member, which hands its partitions over gracefully. Hazelcast's own
+ * shutdown hook is disabled while this is enabled, so the member is not terminated halfway.
+ *
+ * Runs as a lifecycle phase after the web server has drained its requests and before any
+ * bean is destroyed, so the engine, the data source and the Hazelcast instance are all still
+ * usable. Each phase is bounded by its timeout and the time spent in it is logged.
+ */
+@Component
+@ConditionalOnProperty(prefix = "hazelcast.shutdown", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GracefulShutdownCoordinator implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GracefulShutdownCoordinator.class);
+    
+    // After the web server's graceful shutdown (DEFAULT_PHASE - 1024), before it stops (DEFAULT_PHASE - 2048)
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1536;
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private ObjectProvider<ProcessEngine> processEngine;
+    
+    @Autowired
+    @Qualifier("camundaTaskExecutor")
+    private ObjectProvider<TaskExecutor> camundaTaskExecutor;
+    
+    @Autowired
+    private HandoffCompletionExecutor handoffCompletionExecutor;
+    
+    @Autowired
+    private BatchingMapWriter batchingMapWriter;
+    
+    @Autowired
+    private ObjectProvider<ProcessEndCleanup> processEndCleanup;
+    
+    private volatile boolean running;
+    
+    @Override
+    public void start() {
+        running = true;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        HazelcastProperties.Shutdown shutdown = hazelcastProperties.getShutdown();
+        Map<String, Long> phases = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        
+        phases.put("acquisition", timed(this::stopJobAcquisition));
+        phases.put("drain", timed(() -> drain(TimeUnit.SECONDS.toNanos(shutdown.getDrainTimeoutSeconds()))));
+        phases.put("cluster-safe", timed(() -> awaitSafeState(shutdown.getSafeStateTimeoutSeconds())));
+        phases.put("hazelcast", timed(this::shutdownHazelcast));
+        
+        logger.info("Graceful shutdown finished in {} ms, phases in ms: {}",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), phases);
+    }
+    
+    private void stopJobAcquisition() {
+        ProcessEngine engine = processEngine.getIfAvailable();
+        if (engine == null) {
+            return;
+        }
+        JobExecutor jobExecutor = ((ProcessEngineConfigurationImpl) engine.getProcessEngineConfiguration()).getJobExecutor();
+        if (jobExecutor != null && jobExecutor.isActive()) {
+            // Jobs already handed to the task executor keep running
+            jobExecutor.shutdown();
+        }
+    }
+    
+    private void drain(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        
+        TaskExecutor taskExecutor = camundaTaskExecutor.getIfAvailable();
+        if (taskExecutor instanceof ThreadPoolTaskExecutor pool) {
+            if (!await(() -> pool.getActiveCount() == 0 && pool.getThreadPoolExecutor().getQueue().isEmpty(), deadline)) {
+                logger.warn("{} jobs still running after the drain timeout", pool.getActiveCount());
+            }
+        }
+        if (!await(() -> handoffCompletionExecutor.inFlight() == 0, deadline)) {
+            logger.warn("{} asynchronous handoffs still in flight after the drain timeout", handoffCompletionExecutor.inFlight());
+        }
+        
+        // Both flush what they have queued before returning
+        try {
+            batchingMapWriter.stop();
+            ProcessEndCleanup cleanup = processEndCleanup.getIfAvailable();
+            if (cleanup != null) {
+                cleanup.stop();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Leaving while a backup is behind would lose the entries only this member holds, and the
+     * migration that follows would stall operations on those partitions.
+     */
+    private void awaitSafeState(int timeoutSeconds) {
+        if (hazelcastProperties.getMode() != HazelcastProperties.Mode.EMBEDDED) {
+            // Lite members and clients own no partitions
+            return;
+        }
+        PartitionService partitionService = hazelcastInstance.getPartitionService();
+        if (!partitionService.isLocalMemberSafe()
+                && !partitionService.forceLocalMemberToBeSafe(timeoutSeconds, TimeUnit.SECONDS)) {
+            logger.warn("Backups of local partitions were not in sync within {}s, shutting down anyway", timeoutSeconds);
+        }
+    }
+    
+    private void shutdownHazelcast() {
+        if (hazelcastInstance.getLifecycleService().isRunning()) {
+            // A member migrates its partitions to the remaining members before it leaves
+            hazelcastInstance.shutdown();
+        }
+    }
+    
+    private static long timed(Runnable phase) {
+        long start = System.nanoTime();
+        try {
+            phase.run();
+        } catch (RuntimeException e) {
+            logger.error("Graceful shutdown phase failed, continuing with the next one", e);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+    
+    private static boolean await(BooleanSupplier condition, long deadlineNanos) {
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() >= deadlineNanos) {
+                return false;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.workflow.engine;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Registers {@link HazelcastVariableSerializer} with the process engine and has every
+ * command delete the payloads its variable updates and removals leave behind, see
+ * {@link VariablePayloadCleanup}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "hazelcast.variables", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HazelcastVariablePlugin extends AbstractProcessEnginePlugin {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HazelcastVariablePlugin.class);
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private ObjectProvider<HazelcastInstance> hazelcastInstance;
+    
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        String mapName = hazelcastProperties.getVariables().getMapName();
+        
+        // Resolved lazily, the engine is built before the first variable is touched
+        Supplier<IMap<String, Object>> variableMap = () -> hazelcastInstance.getObject().getMap(mapName);
+        HazelcastVariableSerializer serializer = new HazelcastVariableSerializer(variableMap, meterRegistry::getObject);
+        
+        List<TypedValueSerializer> serializers = processEngineConfiguration.getCustomPreVariableSerializers();
+        if (serializers == null) {
+            serializers = new ArrayList<>();
+        } else {
+            serializers = new ArrayList<>(serializers);
+        }
+        serializers.add(serializer);
+        processEngineConfiguration.setCustomPreVariableSerializers(serializers);
+        
+        List<SessionFactory> sessionFactories = processEngineConfiguration.getCustomSessionFactories();
+        sessionFactories = sessionFactories == null ? new ArrayList<>() : new ArrayList<>(sessionFactories);
+        sessionFactories.add(new SessionFactory() {
+            @Override
+            public Class<?> getSessionType() {
+                return VariablePayloadCleanup.class;
+            }
+            
+            @Override
+            public Session openSession() {
+                VariablePayloadCleanup cleanup = new VariablePayloadCleanup(variableMap,
+                    processEngineConfiguration.getDatabaseTablePrefix());
+                Context.getCommandContext().registerCommandContextListener(cleanup);
+                return cleanup;
+            }
+        });
+        processEngineConfiguration.setCustomSessionFactories(sessionFactories);
+        
+        // Variables are also removed without the serializer being involved, so every command needs one
+        processEngineConfiguration.setCustomPostCommandInterceptorsTxRequired(
+            withCleanup(processEngineConfiguration.getCustomPostCommandInterceptorsTxRequired()));
+        processEngineConfiguration.setCustomPostCommandInterceptorsTxRequiresNew(
+            withCleanup(processEngineConfiguration.getCustomPostCommandInterceptorsTxRequiresNew()));
+        
+        logger.info("Registered Hazelcast variable serializer backed by map '{}'", mapName);
+    }
+    
+    private static List<CommandInterceptor> withCleanup(List<CommandInterceptor> interceptors) {
+        interceptors = interceptors == null ? new ArrayList<>() : new ArrayList<>(interceptors);
+        interceptors.add(new CommandInterceptor() {
+            @Override
+            public <T> T execute(Command<T> command) {
+                // Runs inside the command context, so the cleanup is bound to it
+                CommandContext commandContext = Context.getCommandContext();
+                commandContext.getSession(VariablePayloadCleanup.class);
+                return next.execute(command);
+            }
+        });
+        return interceptors;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.workflow.engine;
+
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.variable.serializer.AbstractTypedValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
+import org.camunda.bpm.engine.variable.impl.value.ObjectValueImpl;
+import org.camunda.bpm.engine.variable.impl.value.UntypedValueImpl;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Variable serializer for object values with the {@value #DATA_FORMAT} data format. The
+ * payload is stored in a Hazelcast map and the engine only keeps the reference (TEXT_) and
+ * type name (TEXT2_) in ACT_RU_VARIABLE, so no ACT_GE_BYTEARRAY row is written. The value
+ * is fetched when the variable is read with deserialization, e.g. on getVariable.
+ *
+ * Values are not treated as mutable: changes made in place to a fetched object are not
+ * written back unless the variable is set again. Every write stores the payload under a new
+ * reference, and {@link VariablePayloadCleanup} deletes the payload it replaced once the
+ * update has committed. A serialized value, e.g. set through the REST API or copied from
+ * another variable, must be the reference of an existing payload, which is copied so that
+ * no two variables share one.
+ */
+public class HazelcastVariableSerializer extends AbstractTypedValueSerializer<ObjectValue> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HazelcastVariableSerializer.class);
+    
+    public static final String NAME = "hazelcast-reference";
+    public static final String DATA_FORMAT = "application/x-hazelcast-reference";
+    
+    private final Supplier<IMap<String, Object>> variableMap;
+    private final Supplier<MeterRegistry> meterRegistry;
+    
+    public HazelcastVariableSerializer(Supplier<IMap<String, Object>> variableMap, Supplier<MeterRegistry> meterRegistry) {
+        super(ValueType.OBJECT);
+        this.variableMap = variableMap;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public String getSerializationDataformat() {
+        return DATA_FORMAT;
+    }
+    
+    @Override
+    protected boolean canWriteValue(TypedValue value) {
+        return value instanceof ObjectValue
+            && DATA_FORMAT.equals(((ObjectValue) value).getSerializationDataFormat());
+    }
+    
+    @Override
+    public ObjectValue convertToTypedValue(UntypedValueImpl untypedValue) {
+        return HazelcastVariables.objectValue(untypedValue.getValue());
+    }
+    
+    @Override
+    public void writeValue(ObjectValue value, ValueFields valueFields) {
+        Object payload = value.isDeserialized() ? value.getValue() : referencedPayload(value.getValueSerialized());
+        if (payload == null) {
+            valueFields.setTextValue(null);
+            valueFields.setTextValue2(value.getObjectTypeName());
+            return;
+        }
+        
+        // Updates get a new reference too, so a rolled back update leaves the committed payload intact
+        String reference = UUID.randomUUID().toString();
+        Timer.Sample sample = Timer.start(meterRegistry.get());
+        IMap<String, Object> map = variableMap.get();
+        map.set(reference, payload);
+        sample.stop(meterRegistry.get().timer("workflow.hazelcast.variable", "operation", "write"));
+        
+        removeOnRollback(map, reference);
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext != null && valueFields instanceof VariableInstanceEntity variable) {
+            commandContext.getSession(VariablePayloadCleanup.class).written(variable, reference);
+        }
+        valueFields.setTextValue(reference);
+        valueFields.setTextValue2(payload.getClass().getName());
+    }
+    
+    private Object referencedPayload(String reference) {
+        if (reference == null) {
+            return null;
+        }
+        if (!isReference(reference)) {
+            throw new ProcessEngineException("'" + reference + "' is not a Hazelcast variable reference");
+        }
+        Timer.Sample sample = Timer.start(meterRegistry.get());
+        Object payload = variableMap.get().get(reference);
+        sample.stop(meterRegistry.get().timer("workflow.hazelcast.variable", "operation", "read"));
+        if (payload == null) {
+            throw new ProcessEngineException("No Hazelcast payload found for variable reference " + reference);
+        }
+        return payload;
+    }
+    
+    private static boolean isReference(String reference) {
+        try {
+            return UUID.fromString(reference).toString().equals(reference);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Returns the Hazelcast reference of the given value, or null if it is not stored by this
+     * serializer. Only the serialized form is inspected, so no payload is fetched.
+     */
+    static String referenceOf(TypedValue value) {
+        if (value instanceof ObjectValue && DATA_FORMAT.equals(((ObjectValue) value).getSerializationDataFormat())) {
+            return ((ObjectValue) value).getValueSerialized();
+        }
+        return null;
+    }
+    
+    @Override
+    public ObjectValue readValue(ValueFields valueFields, boolean deserializeValue, boolean isTransient) {
+        String reference = valueFields.getTextValue();
+        String typeName = valueFields.getTextValue2();
+        
+        if (!deserializeValue || reference == null) {
+            // Serialized form is the reference; nothing is fetched from Hazelcast
+            return new ObjectValueImpl(null, reference, DATA_FORMAT, typeName, false);
+        }
+        
+        Timer.Sample sample = Timer.start(meterRegistry.get());
+        Object payload = variableMap.get().get(reference);
+        sample.stop(meterRegistry.get().timer("workflow.hazelcast.variable", "operation", "read"));
+        
+        if (payload == null) {
+            logger.warn("No Hazelcast payload found for variable {} (reference {})", valueFields.getName(), reference);
+        }
+        return new ObjectValueImpl(payload, reference, DATA_FORMAT, typeName, true);
+    }
+    
+    private void removeOnRollback(IMap<String, Object> map, String reference) {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext != null) {
+            commandContext.getTransactionContext().addTransactionListener(
+                TransactionState.ROLLED_BACK, context -> map.delete(reference));
+        }
+    }
+}
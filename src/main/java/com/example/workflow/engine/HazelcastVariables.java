@@ -0,0 +1,24 @@
+package com.example.workflow.engine;
+
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+
+/**
+ * Factory for process variables whose payload lives in Hazelcast. Only a reference is
+ * written to ACT_RU_VARIABLE; the value is fetched from the variable map on access.
+ *
+ * <pre>
+ * execution.setVariable("document", HazelcastVariables.objectValue(document));
+ * </pre>
+ */
+public final class HazelcastVariables {
+    
+    private HazelcastVariables() {
+    }
+    
+    public static ObjectValue objectValue(Object value) {
+        return Variables.objectValue(value)
+            .serializationDataFormat(HazelcastVariableSerializer.DATA_FORMAT)
+            .create();
+    }
+}
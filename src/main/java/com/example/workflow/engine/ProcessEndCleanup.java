@@ -0,0 +1,197 @@
+package com.example.workflow.engine;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.example.workflow.tasks.ChunkManifest;
+import com.example.workflow.tasks.ChunkedPayloadStore;
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.example.workflow.tasks.WorkflowMapRouter;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes handoff entries of process instances that ended or were cancelled before their
+ * entries were consumed, instead of leaving them on the heap until the map TTL.
+ *
+ * A built-in end listener is added to every process definition, so it also runs when an
+ * instance is deleted with skipCustomListeners. Ended instances are collected after commit
+ * and removed in batches. Because {@link WorkflowDataKey} routes all entries of an instance
+ * to one partition, each batch queries and removes them with one partition-scoped call per
+ * workflow map instead of scanning the whole map. The predicate reads the processInstanceId
+ * field of the Compact key, so it needs no application classes on the data tier.
+ */
+@Component
+@ConditionalOnProperty(prefix = "hazelcast.map.cleanup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProcessEndCleanup extends AbstractProcessEnginePlugin {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProcessEndCleanup.class);
+    
+    private static final String KEY_PROCESS_INSTANCE_ID = "__key.processInstanceId";
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private ObjectProvider<HazelcastInstance> hazelcastInstance;
+    
+    @Autowired
+    private ObjectProvider<ChunkedPayloadStore> chunkedPayloadStore;
+    
+    @Autowired
+    private ObjectProvider<WorkflowMapRouter> workflowMapRouter;
+    
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    private final BlockingQueue<String> ended = new LinkedBlockingQueue<>();
+    
+    private volatile boolean running;
+    
+    private Thread cleaner;
+    
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        ExecutionListener listener = this::processEnded;
+        List<BpmnParseListener> parseListeners = processEngineConfiguration.getCustomPostBPMNParseListeners();
+        parseListeners = parseListeners == null ? new ArrayList<>() : new ArrayList<>(parseListeners);
+        parseListeners.add(new AbstractBpmnParseListener() {
+            @Override
+            public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+                processDefinition.addBuiltInListener(ExecutionListener.EVENTNAME_END, listener);
+            }
+        });
+        processEngineConfiguration.setCustomPostBPMNParseListeners(parseListeners);
+    }
+    
+    @PostConstruct
+    public void start() {
+        running = true;
+        cleaner = new Thread(this::cleanupLoop, "hz-handoff-cleanup");
+        cleaner.setDaemon(true);
+        cleaner.start();
+    }
+    
+    private void processEnded(DelegateExecution execution) {
+        String processInstanceId = execution.getProcessInstanceId();
+        // Entries buffered by this transaction are flushed on commit, so clean up after that
+        Context.getCommandContext().getTransactionContext().addTransactionListener(
+            TransactionState.COMMITTED, commandContext -> enqueue(processInstanceId));
+    }
+    
+    /**
+     * Schedules removal of all handoff entries of the given process instance.
+     */
+    public void enqueue(String processInstanceId) {
+        ended.add(processInstanceId);
+    }
+    
+    private void cleanupLoop() {
+        HazelcastProperties.Cleanup cleanup = hazelcastProperties.getMap().getCleanup();
+        int maxBatchSize = Math.max(1, cleanup.getMaxBatchSize());
+        
+        while (running || !ended.isEmpty()) {
+            try {
+                String first = ended.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                Set<String> batch = new HashSet<>();
+                batch.add(first);
+                
+                // Under churn many instances end together; gather them into one pass
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cleanup.getMaxDelayMillis());
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    String next = remaining > 0 ? ended.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                remove(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+    
+    private void remove(Set<String> processInstanceIds) {
+        MeterRegistry registry = meterRegistry.getObject();
+        HazelcastInstance instance = hazelcastInstance.getObject();
+        
+        // Built-in predicates only, so a data tier without this application's classes can run
+        // them; the partition scope limits both calls to the partitions owning these instances
+        Predicate<Object, Object> ofEnded = Predicates.multiPartitionPredicate(processInstanceIds,
+            Predicates.in(KEY_PROCESS_INSTANCE_ID, processInstanceIds.toArray(new String[0])));
+        
+        int removed = 0;
+        // An instance may have handed off through any workflow map, e.g. per-activity routing
+        for (String mapName : workflowMapRouter.getObject().mapNames()) {
+            Timer.Sample sample = Timer.start(registry);
+            IMap<Object, Object> map = instance.getMap(mapName);
+            try {
+                // Unconsumed values are small, large payloads are stored as chunk manifests
+                Collection<Object> values = map.values(ofEnded);
+                if (!values.isEmpty()) {
+                    map.removeAll(ofEnded);
+                    removed += values.size();
+                    for (Object value : values) {
+                        if (value instanceof ChunkManifest) {
+                            chunkedPayloadStore.getObject().delete((ChunkManifest) value);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                // E.g. a key of another type in one of the partitions; the map TTL still evicts what is left
+                logger.error("Error removing entries of {} ended process instances from map {}",
+                    processInstanceIds.size(), mapName, e);
+            }
+            sample.stop(registry.timer("workflow.hazelcast.cleanup.duration", "map", mapName));
+        }
+        
+        registry.counter("workflow.hazelcast.cleanup", "unit", "instances").increment(processInstanceIds.size());
+        registry.counter("workflow.hazelcast.cleanup", "unit", "entries").increment(removed);
+        if (removed > 0) {
+            logger.debug("Removed {} handoff entries of {} ended process instances", removed, processInstanceIds.size());
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (cleaner != null) {
+            cleaner.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
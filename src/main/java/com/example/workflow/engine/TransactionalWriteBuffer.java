@@ -0,0 +1,163 @@
+package com.example.workflow.engine;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.example.workflow.tasks.WorkflowMapWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers handoff writes for the current engine transaction. Writes are flushed to
+ * Hazelcast while the transaction commits, dropped when it rolls back, and skipped
+ * entirely when the entry is consumed within the same transaction.
+ *
+ * The flush runs before the database commit, so a failed write rolls the transaction
+ * back, and an activity that reads the entry after the commit always finds it. If the
+ * database commit fails after the flush, the entries stay in Hazelcast like unbuffered
+ * writes and are removed by the process end cleanup or their TTL.
+ *
+ * The buffer is a Camunda session, so each command context gets its own; this class
+ * registers itself as the session factory.
+ */
+@Component
+public class TransactionalWriteBuffer extends AbstractProcessEnginePlugin implements SessionFactory {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TransactionalWriteBuffer.class);
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    @Autowired
+    private ObjectProvider<WorkflowMapWriter> workflowMapWriter;
+    
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        List<SessionFactory> sessionFactories = processEngineConfiguration.getCustomSessionFactories();
+        sessionFactories = sessionFactories == null ? new ArrayList<>() : new ArrayList<>(sessionFactories);
+        sessionFactories.add(this);
+        processEngineConfiguration.setCustomSessionFactories(sessionFactories);
+    }
+    
+    /**
+     * Whether writes made now are buffered, i.e. buffering is enabled and the caller runs
+     * inside an engine command.
+     */
+    public boolean isActive() {
+        return hazelcastProperties.getMap().isTransactionalWrites() && Context.getCommandContext() != null;
+    }
+    
+    public void put(String mapName, Object key, Object value) {
+        currentBuffer().put(mapName, key, value);
+    }
+    
+    /**
+     * Removes and returns an entry written earlier in this transaction, or null when the
+     * entry is not buffered and has to be read from Hazelcast.
+     */
+    public Object take(String mapName, Object key) {
+        if (Context.getCommandContext() == null) {
+            return null;
+        }
+        Object value = currentBuffer().take(mapName, key);
+        if (value != null) {
+            count("consumed", 1);
+        }
+        return value;
+    }
+    
+    private Buffer currentBuffer() {
+        return Context.getCommandContext().getSession(Buffer.class);
+    }
+    
+    @Override
+    public Class<?> getSessionType() {
+        return Buffer.class;
+    }
+    
+    @Override
+    public Session openSession() {
+        Buffer buffer = new Buffer();
+        CommandContext commandContext = Context.getCommandContext();
+        commandContext.getTransactionContext().addTransactionListener(
+            TransactionState.COMMITTING, context -> flush(buffer));
+        commandContext.getTransactionContext().addTransactionListener(
+            TransactionState.ROLLED_BACK, context -> drop(buffer));
+        return buffer;
+    }
+    
+    private void flush(Buffer buffer) {
+        for (Map.Entry<String, Map<Object, Object>> pending : buffer.pending.entrySet()) {
+            String mapName = pending.getKey();
+            Map<Object, Object> entries = pending.getValue();
+            if (entries.isEmpty()) {
+                continue;
+            }
+            try {
+                workflowMapWriter.getObject().writeAll(mapName, entries);
+                count("flushed", entries.size());
+            } catch (Exception e) {
+                // Thrown before the database commit, so the engine rolls the transaction back
+                logger.error("Failed to flush {} buffered entries to map {}", entries.size(), mapName, e);
+                count("failed", entries.size());
+                throw new ProcessEngineException("Failed to write " + entries.size()
+                    + " buffered entries to Hazelcast map " + mapName, e);
+            }
+        }
+        buffer.pending.clear();
+    }
+    
+    private void drop(Buffer buffer) {
+        int dropped = buffer.pending.values().stream().mapToInt(Map::size).sum();
+        if (dropped > 0) {
+            logger.debug("Dropping {} buffered Hazelcast writes after rollback", dropped);
+            count("dropped", dropped);
+        }
+        buffer.pending.clear();
+    }
+    
+    private void count(String outcome, int entries) {
+        meterRegistry.getObject().counter("workflow.hazelcast.buffer", "outcome", outcome).increment(entries);
+    }
+    
+    static final class Buffer implements Session {
+        
+        private final Map<String, Map<Object, Object>> pending = new LinkedHashMap<>();
+        
+        void put(String mapName, Object key, Object value) {
+            pending.computeIfAbsent(mapName, name -> new LinkedHashMap<>()).put(key, value);
+        }
+        
+        Object take(String mapName, Object key) {
+            Map<Object, Object> entries = pending.get(mapName);
+            return entries != null ? entries.remove(key) : null;
+        }
+        
+        @Override
+        public void flush() {
+            // Written when the transaction commits, not on engine flush
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
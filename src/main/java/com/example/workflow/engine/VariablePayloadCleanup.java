@@ -0,0 +1,138 @@
+package com.example.workflow.engine;
+
+import com.hazelcast.map.IMap;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandContextListener;
+import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Deletes the Hazelcast payloads a command leaves without a variable, i.e. those of
+ * variables that were updated, removed or ended with their scope, once the command's
+ * transaction has committed.
+ *
+ * The engine clears a variable's fields before the serializer or any listener sees the
+ * update or removal, so the previous references are read back from ACT_RU_VARIABLE when
+ * the command closes, before its changes are flushed. Payloads written for variables that
+ * never reach the database, e.g. transient ones or ones replaced within the command, are
+ * tracked as they are written.
+ */
+class VariablePayloadCleanup implements Session, CommandContextListener {
+    
+    private static final int IDS_PER_QUERY = 500;
+    
+    private final Supplier<IMap<String, Object>> variableMap;
+    private final String variableTable;
+    
+    // References written by this command, by the variable they were written for
+    private final Map<VariableInstanceEntity, List<String>> written = new IdentityHashMap<>();
+    
+    VariablePayloadCleanup(Supplier<IMap<String, Object>> variableMap, String tablePrefix) {
+        this.variableMap = variableMap;
+        this.variableTable = (tablePrefix != null ? tablePrefix : "") + "ACT_RU_VARIABLE";
+    }
+    
+    void written(VariableInstanceEntity variable, String reference) {
+        written.computeIfAbsent(variable, key -> new ArrayList<>()).add(reference);
+    }
+    
+    @Override
+    public void onCommandContextClose(CommandContext commandContext) {
+        DbEntityManager dbEntityManager = (DbEntityManager) commandContext.getSessions().get(DbEntityManager.class);
+        Set<String> live = new HashSet<>();
+        List<String> changedIds = new ArrayList<>();
+        if (dbEntityManager != null) {
+            DbEntityCache cache = dbEntityManager.getDbEntityCache();
+            for (VariableInstanceEntity variable : cache.getEntitiesByType(VariableInstanceEntity.class)) {
+                CachedDbEntity cached = cache.getCachedEntity(variable);
+                DbEntityState state = cached.getEntityState();
+                boolean deleted = cache.isDeleted(variable);
+                if (!deleted && HazelcastVariableSerializer.NAME.equals(variable.getSerializerName())
+                        && variable.getTextValue() != null) {
+                    live.add(variable.getTextValue());
+                }
+                boolean stored = state != DbEntityState.TRANSIENT && state != DbEntityState.DELETED_TRANSIENT;
+                if (stored && (deleted || written.containsKey(variable) || cached.isDirty())) {
+                    changedIds.add(variable.getId());
+                }
+            }
+        }
+        
+        Set<String> unreferenced = new HashSet<>();
+        written.values().forEach(unreferenced::addAll);
+        if (!changedIds.isEmpty()) {
+            unreferenced.addAll(storedReferences(commandContext, changedIds));
+        }
+        unreferenced.removeAll(live);
+        written.clear();
+        if (unreferenced.isEmpty()) {
+            return;
+        }
+        
+        commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED, context -> {
+            IMap<String, Object> map = variableMap.get();
+            unreferenced.forEach(map::deleteAsync);
+        });
+    }
+    
+    private List<String> storedReferences(CommandContext commandContext, List<String> ids) {
+        // Plain JDBC on the command's connection, MyBatis could answer from its session cache
+        List<String> references = new ArrayList<>();
+        Connection connection = commandContext.getDbSqlSession().getSqlSession().getConnection();
+        for (int from = 0; from < ids.size(); from += IDS_PER_QUERY) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + IDS_PER_QUERY));
+            String sql = "SELECT TEXT_ FROM " + variableTable + " WHERE TYPE_ = ? AND ID_ IN ("
+                + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, HazelcastVariableSerializer.NAME);
+                for (int i = 0; i < chunk.size(); i++) {
+                    statement.setString(i + 2, chunk.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String reference = resultSet.getString(1);
+                        if (reference != null) {
+                            references.add(reference);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new ProcessEngineException("Failed to read the Hazelcast references of changed variables", e);
+            }
+        }
+        return references;
+    }
+    
+    @Override
+    public void onCommandFailed(CommandContext commandContext, Throwable t) {
+        // Payloads written by the failed command are removed by the serializer's rollback listener
+        written.clear();
+    }
+    
+    @Override
+    public void flush() {
+    }
+    
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.workflow.persistence;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts the lazy initial load of persisted maps once the application is ready, so that a
+ * restarted cluster serves requests right away instead of waiting for a preload. Touching
+ * the map makes every member load its own partitions in parallel; an operation on a
+ * partition that is still loading waits for that partition only.
+ */
+@Component
+public class WorkflowMapPreloader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowMapPreloader.class);
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (hazelcastProperties.getMode() == HazelcastProperties.Mode.CLIENT) {
+            // Persistence lives on the data tier, which loads its maps itself
+            return;
+        }
+        for (MapConfig mapConfig : hazelcastInstance.getConfig().getMapConfigs().values()) {
+            MapStoreConfig mapStoreConfig = mapConfig.getMapStoreConfig();
+            if (mapStoreConfig.isEnabled()
+                    && mapStoreConfig.getInitialLoadMode() == MapStoreConfig.InitialLoadMode.LAZY
+                    && Boolean.parseBoolean(mapStoreConfig.getProperty(WorkflowMapStoreFactory.LOAD_ALL_KEYS))) {
+                Thread loader = new Thread(() -> load(mapConfig.getName()), "hz-initial-load-" + mapConfig.getName());
+                loader.setDaemon(true);
+                loader.start();
+            }
+        }
+    }
+    
+    private void load(String mapName) {
+        long start = System.nanoTime();
+        try {
+            // size() returns once all partitions of the map have finished loading
+            int size = hazelcastInstance.getMap(mapName).size();
+            logger.info("Initial load of map '{}' finished with {} entries in {} ms",
+                mapName, size, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Initial load of map '{}' failed, entries are still read through on a miss", mapName, e);
+        }
+    }
+}
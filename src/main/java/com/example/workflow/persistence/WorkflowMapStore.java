@@ -0,0 +1,288 @@
+package com.example.workflow.persistence;
+
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.MapLoaderLifecycleSupport;
+import com.hazelcast.map.MapStore;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind store that keeps one workflow map's entries in the application database.
+ * Hazelcast queues and coalesces updates per key and hands them over in batches, which are
+ * written with JDBC batch updates, so delegates never wait on the database. After a full
+ * cluster restart, entries are read back on a miss, or all at once by the initial load.
+ *
+ * Values are stored in Hazelcast's binary format with their Compact schemas embedded, so a
+ * row can be read back by a cluster that has never seen the schema.
+ *
+ * Expiry by the map TTL does not reach the store, so rows older than the TTL are skipped
+ * when loading and deleted periodically by every member.
+ */
+public class WorkflowMapStore implements MapStore<Object, Object>, MapLoaderLifecycleSupport {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowMapStore.class);
+    
+    static final String KEY_TYPE_WORKFLOW = "workflow";
+    static final String KEY_TYPE_STRING = "string";
+    
+    private final String mapName;
+    private final String table;
+    private final Supplier<JdbcTemplate> jdbcTemplate;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final int timeToLiveSeconds;
+    private final boolean loadAllKeys;
+    private final int purgeIntervalSeconds;
+    
+    private SerializationService serializationService;
+    private ScheduledExecutorService purger;
+    
+    // Value classes this store has serialized the regular way, see payload()
+    private final Set<Class<?>> registeredClasses = ConcurrentHashMap.newKeySet();
+    
+    WorkflowMapStore(String mapName, String table, Supplier<JdbcTemplate> jdbcTemplate,
+                     Supplier<MeterRegistry> meterRegistry, int timeToLiveSeconds, boolean loadAllKeys,
+                     int purgeIntervalSeconds) {
+        this.mapName = mapName;
+        this.table = table;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.loadAllKeys = loadAllKeys;
+        this.purgeIntervalSeconds = purgeIntervalSeconds;
+    }
+    
+    /**
+     * Creates the table shared by all persisted maps unless it exists.
+     */
+    static void createTable(JdbcTemplate jdbcTemplate, String table) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+            + "map_name VARCHAR(255) NOT NULL, "
+            + "key_type VARCHAR(16) NOT NULL, "
+            + "entry_key VARCHAR(512) NOT NULL, "
+            + "payload BYTEA NOT NULL, "
+            + "updated_at TIMESTAMP NOT NULL, "
+            + "PRIMARY KEY (map_name, entry_key))");
+    }
+    
+    @Override
+    public void init(HazelcastInstance hazelcastInstance, Properties properties, String mapName) {
+        if (!(hazelcastInstance instanceof SerializationServiceSupport)) {
+            throw new IllegalStateException("Map store of '" + mapName + "' needs a Hazelcast member, got "
+                + hazelcastInstance.getClass().getName());
+        }
+        // Hazelcast has no public API for binaries that carry their own schemas
+        serializationService = ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+        
+        if (timeToLiveSeconds > 0 && purgeIntervalSeconds > 0) {
+            purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hz-mapstore-purge-" + mapName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            purger.scheduleWithFixedDelay(this::purgeExpiredSafely, purgeIntervalSeconds, purgeIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+    
+    @Override
+    public void store(Object key, Object value) {
+        storeAll(Collections.singletonMap(key, value));
+    }
+    
+    @Override
+    public void storeAll(Map<Object, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> rows.add(new Object[] {
+            mapName, keyType(key), key.toString(), payload(value), now
+        }));
+        
+        Timer.Sample sample = Timer.start(meterRegistry.get());
+        // Update first and insert the rows that did not exist, which every database supports.
+        // Only the partition owner writes a key; a duplicate after a migration fails the batch
+        // and Hazelcast's retry then finds the row and updates it.
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            updates.add(new Object[] {row[1], row[3], row[4], row[0], row[2]});
+        }
+        int[] updated = jdbcTemplate.get().batchUpdate(
+            "UPDATE " + table + " SET key_type = ?, payload = ?, updated_at = ? WHERE map_name = ? AND entry_key = ?",
+            updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[i] == 0) {
+                inserts.add(rows.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.get().batchUpdate(
+                "INSERT INTO " + table + " (map_name, key_type, entry_key, payload, updated_at) VALUES (?, ?, ?, ?, ?)",
+                inserts);
+        }
+        record(sample, "store", rows.size());
+    }
+    
+    @Override
+    public void delete(Object key) {
+        deleteAll(Collections.singletonList(key));
+    }
+    
+    @Override
+    public void deleteAll(Collection<Object> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            rows.add(new Object[] {mapName, key.toString()});
+        }
+        
+        Timer.Sample sample = Timer.start(meterRegistry.get());
+        jdbcTemplate.get().batchUpdate("DELETE FROM " + table + " WHERE map_name = ? AND entry_key = ?", rows);
+        record(sample, "delete", rows.size());
+    }
+    
+    @Override
+    public Object load(Object key) {
+        return loadAll(Collections.singletonList(key)).get(key);
+    }
+    
+    /**
+     * Reads the given keys back. Hazelcast calls this per partition, on partition threads, both
+     * on a miss and during the initial load, so a large map is loaded partition-parallel.
+     */
+    @Override
+    public Map<Object, Object> loadAll(Collection<Object> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> byEntryKey = new HashMap<>();
+        for (Object key : keys) {
+            byEntryKey.put(key.toString(), key);
+        }
+        List<Object> args = new ArrayList<>(byEntryKey.size() + 2);
+        args.add(mapName);
+        args.add(notExpiredSince());
+        args.addAll(byEntryKey.keySet());
+        
+        Timer.Sample sample = Timer.start(meterRegistry.get());
+        Map<Object, Object> loaded = new HashMap<>();
+        jdbcTemplate.get().query(
+            "SELECT entry_key, payload FROM " + table + " WHERE map_name = ? AND updated_at >= ? AND entry_key IN ("
+                + String.join(", ", Collections.nCopies(byEntryKey.size(), "?")) + ")",
+            rs -> {
+                loaded.put(byEntryKey.get(rs.getString("entry_key")), decode(rs.getBytes("payload")));
+            },
+            args.toArray());
+        record(sample, "load", loaded.size());
+        return loaded;
+    }
+    
+    @Override
+    public Iterable<Object> loadAllKeys() {
+        if (!loadAllKeys) {
+            // Read-through only, entries come back one miss at a time
+            return null;
+        }
+        List<Object> keys = jdbcTemplate.get().query(
+            "SELECT key_type, entry_key FROM " + table + " WHERE map_name = ? AND updated_at >= ?",
+            (rs, row) -> decodeKey(rs.getString("key_type"), rs.getString("entry_key")),
+            mapName, notExpiredSince());
+        logger.info("Initial load of map '{}' will restore {} entries", mapName, keys.size());
+        return keys;
+    }
+    
+    /**
+     * Deletes the rows of entries the map TTL has expired and returns how many were removed.
+     */
+    int purgeExpired() {
+        if (timeToLiveSeconds <= 0) {
+            return 0;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry.get());
+        int purged = jdbcTemplate.get().update(
+            "DELETE FROM " + table + " WHERE map_name = ? AND updated_at < ?", mapName, notExpiredSince());
+        record(sample, "purge", purged);
+        return purged;
+    }
+    
+    private void purgeExpiredSafely() {
+        try {
+            int purged = purgeExpired();
+            if (purged > 0) {
+                logger.debug("Purged {} expired rows of map '{}'", purged, mapName);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Error purging expired rows of map '{}'", mapName, e);
+        }
+    }
+    
+    private void record(Timer.Sample sample, String operation, int entries) {
+        MeterRegistry registry = meterRegistry.get();
+        sample.stop(registry.timer("workflow.hazelcast.mapstore", "map", mapName, "operation", operation));
+        registry.counter("workflow.hazelcast.mapstore.entries", "map", mapName, "operation", operation).increment(entries);
+    }
+    
+    static String keyType(Object key) {
+        return key instanceof WorkflowDataKey ? KEY_TYPE_WORKFLOW : KEY_TYPE_STRING;
+    }
+    
+    static Object decodeKey(String keyType, String entryKey) {
+        return KEY_TYPE_WORKFLOW.equals(keyType) ? WorkflowDataKey.parse(entryKey) : entryKey;
+    }
+    
+    private byte[] payload(Object value) {
+        // A schema first seen by toDataWithSchema is cached without being registered with the
+        // member, and later map writes of that class would then fail on a missing schema
+        if (registeredClasses.add(value.getClass())) {
+            serializationService.toData(value);
+        }
+        return serializationService.toDataWithSchema(value).toByteArray();
+    }
+    
+    private Object decode(byte[] payload) {
+        return serializationService.toObject(new HeapData(payload));
+    }
+    
+    /**
+     * Rows written before this instant belong to entries the map TTL has already expired.
+     * Expiry does not reach the store, so such rows are skipped instead of resurrected.
+     */
+    private Timestamp notExpiredSince() {
+        return timeToLiveSeconds > 0
+            ? Timestamp.from(Instant.now().minusSeconds(timeToLiveSeconds))
+            : new Timestamp(0);
+    }
+}
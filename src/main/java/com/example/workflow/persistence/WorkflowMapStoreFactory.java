@@ -0,0 +1,73 @@
+package com.example.workflow.persistence;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.MapLoader;
+import com.hazelcast.map.MapStoreFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates a {@link WorkflowMapStore} for each workflow map with persistence enabled, backed by
+ * the application's {@code spring.datasource}. Hazelcast calls the factory when a map is first
+ * used, well after the Spring context is up, so the JDBC template is resolved lazily.
+ */
+@Component
+public class WorkflowMapStoreFactory implements MapStoreFactory<Object, Object> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowMapStoreFactory.class);
+    
+    public static final String TABLE = "table";
+    public static final String TIME_TO_LIVE_SECONDS = "time-to-live-seconds";
+    public static final String LOAD_ALL_KEYS = "load-all-keys";
+    public static final String PURGE_INTERVAL_SECONDS = "purge-interval-seconds";
+    
+    @Autowired
+    private ObjectProvider<JdbcTemplate> jdbcTemplate;
+    
+    @Autowired
+    private ObjectProvider<HazelcastInstance> hazelcastInstance;
+    
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    private final Set<String> createdTables = ConcurrentHashMap.newKeySet();
+    
+    @Override
+    public MapLoader<Object, Object> newMapStore(String mapName, Properties properties) {
+        String table = properties.getProperty(TABLE, "hazelcast_handoff");
+        int timeToLiveSeconds = Integer.parseInt(properties.getProperty(TIME_TO_LIVE_SECONDS, "0"));
+        boolean loadAllKeys = Boolean.parseBoolean(properties.getProperty(LOAD_ALL_KEYS, "true"));
+        int purgeIntervalSeconds = Integer.parseInt(properties.getProperty(PURGE_INTERVAL_SECONDS, "3600"));
+        createTable(table);
+        
+        // Entries updated in memory but not yet written to the database on this member
+        Gauge.builder("workflow.hazelcast.mapstore.queue", () ->
+                hazelcastInstance.getObject().getMap(mapName).getLocalMapStats().getDirtyEntryCount())
+            .description("Entries waiting in the write-behind queue")
+            .tag("map", mapName)
+            .register(meterRegistry.getObject());
+        
+        logger.info("Persisting map '{}' to table {} with write-behind, initial load {}",
+            mapName, table, loadAllKeys ? "enabled" : "disabled");
+        return new WorkflowMapStore(mapName, table, jdbcTemplate::getObject, meterRegistry::getObject,
+            timeToLiveSeconds, loadAllKeys, purgeIntervalSeconds);
+    }
+    
+    private synchronized void createTable(String table) {
+        if (createdTables.contains(table)) {
+            return;
+        }
+        WorkflowMapStore.createTable(jdbcTemplate.getObject(), table);
+        createdTables.add(table);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.workflow.serialization;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.camunda.bpm.webapp.impl.security.auth.Authentication;
+import org.camunda.bpm.webapp.impl.security.auth.Authentications;
+import org.camunda.bpm.webapp.impl.security.auth.UserAuthentication;
+
+import java.util.List;
+
+/**
+ * Compact serializer for the Camunda webapp login state kept in the HTTP session, one
+ * {@link UserAuthentication} per process engine. Entries of any other {@link Authentication}
+ * class are written as a plain {@link UserAuthentication} with the same login data.
+ */
+public class AuthenticationsSerializer implements CompactSerializer<Authentications> {
+    
+    public static final String TYPE_NAME = "CamundaAuthentications";
+    
+    @Override
+    public Authentications read(CompactReader reader) {
+        Authentications authentications = new Authentications();
+        UserAuthentication[] entries = reader.readArrayOfCompact("authentications", UserAuthentication.class);
+        if (entries != null) {
+            for (UserAuthentication entry : entries) {
+                authentications.addOrReplace(entry);
+            }
+        }
+        return authentications;
+    }
+    
+    @Override
+    public void write(CompactWriter writer, Authentications authentications) {
+        // Read the entries untyped: plugins can store a plain Authentication through raw types
+        List<?> entries = authentications.getAuthentications();
+        UserAuthentication[] logins = new UserAuthentication[entries.size()];
+        for (int i = 0; i < logins.length; i++) {
+            logins[i] = asUserAuthentication((Authentication) entries.get(i));
+        }
+        writer.writeArrayOfCompact("authentications", logins);
+    }
+    
+    /**
+     * Compact arrays hold a single class, so subclasses are copied into a plain
+     * {@link UserAuthentication}; a base {@link Authentication} only carries its user and engine.
+     */
+    static UserAuthentication asUserAuthentication(Authentication authentication) {
+        if (authentication.getClass() == UserAuthentication.class) {
+            return (UserAuthentication) authentication;
+        }
+        UserAuthentication login = new UserAuthentication(
+            authentication.getIdentityId(), authentication.getProcessEngineName());
+        if (authentication instanceof UserAuthentication userAuthentication) {
+            login.setGroupIds(userAuthentication.getGroupIds());
+            login.setTenantIds(userAuthentication.getTenantIds());
+            login.setAuthorizedApps(userAuthentication.getAuthorizedApps());
+            login.setCacheValidationTime(userAuthentication.getCacheValidationTime());
+        }
+        return login;
+    }
+    
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+    
+    @Override
+    public Class<Authentications> getCompactClass() {
+        return Authentications.class;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.workflow.serialization;
+
+import com.example.workflow.tasks.ChunkManifest;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+
+/**
+ * Compact serializer for {@link ChunkManifest}.
+ */
+public class ChunkManifestSerializer implements CompactSerializer<ChunkManifest> {
+    
+    public static final String TYPE_NAME = "ChunkManifest";
+    
+    @Override
+    public ChunkManifest read(CompactReader reader) {
+        return new ChunkManifest(
+            reader.readString("payloadId"),
+            reader.readString("chunkMapName"),
+            reader.readInt32("chunkCount"),
+            reader.readInt64("totalBytes"),
+            reader.readString("encoding"));
+    }
+    
+    @Override
+    public void write(CompactWriter writer, ChunkManifest manifest) {
+        writer.writeString("payloadId", manifest.getPayloadId());
+        writer.writeString("chunkMapName", manifest.getChunkMapName());
+        writer.writeInt32("chunkCount", manifest.getChunkCount());
+        writer.writeInt64("totalBytes", manifest.getTotalBytes());
+        writer.writeString("encoding", manifest.getEncoding());
+    }
+    
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+    
+    @Override
+    public Class<ChunkManifest> getCompactClass() {
+        return ChunkManifest.class;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.workflow.serialization;
+
+import com.example.workflow.tasks.CompressedPayload;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+
+/**
+ * Compact serializer for {@link CompressedPayload}.
+ */
+public class CompressedPayloadSerializer implements CompactSerializer<CompressedPayload> {
+    
+    public static final String TYPE_NAME = "CompressedPayload";
+    
+    @Override
+    public CompressedPayload read(CompactReader reader) {
+        return new CompressedPayload(
+            reader.readString("encoding"),
+            reader.readInt32("uncompressedSize"),
+            reader.readArrayOfInt8("data"));
+    }
+    
+    @Override
+    public void write(CompactWriter writer, CompressedPayload payload) {
+        writer.writeString("encoding", payload.getEncoding());
+        writer.writeInt32("uncompressedSize", payload.getUncompressedSize());
+        writer.writeArrayOfInt8("data", payload.getData());
+    }
+    
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+    
+    @Override
+    public Class<CompressedPayload> getCompactClass() {
+        return CompressedPayload.class;
+    }
+}
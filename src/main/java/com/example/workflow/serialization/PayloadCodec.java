@@ -0,0 +1,13 @@
+package com.example.workflow.serialization;
+
+/**
+ * How a workflow payload is encoded when it is written to Hazelcast.
+ */
+public enum PayloadCodec {
+    /** Hazelcast built-in serializer for strings, numbers, byte arrays and similar types. */
+    BUILTIN,
+    /** Compact serialization, via a registered serializer, a configured class or zero-config. */
+    COMPACT,
+    /** Java serialization, used only as an explicit fallback for unregistered Serializable types. */
+    JAVA
+}
@@ -0,0 +1,163 @@
+package com.example.workflow.serialization;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.hazelcast.config.CompactSerializationConfig;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Registry of codecs for values stored in the workflow maps. Compact serializers are
+ * contributed as Spring beans or listed in {@code hazelcast.serialization.compact-classes}
+ * and applied to the Hazelcast config. Payloads of unregistered Serializable types fall
+ * back to Java serialization only while {@code hazelcast.serialization.java-fallback} is on.
+ */
+@Component
+public class PayloadCodecRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PayloadCodecRegistry.class);
+    
+    private static final Set<Class<?>> BUILTIN_TYPES = Set.of(
+        String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+        Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class,
+        Date.class, byte[].class);
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired(required = false)
+    private List<CompactSerializer<?>> compactSerializers = Collections.emptyList();
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Set<Class<?>> compactTypes = new HashSet<>();
+    
+    /**
+     * Registers all known Compact payload serializers and classes with the given config.
+     */
+    public void applyTo(SerializationConfig serializationConfig) {
+        CompactSerializationConfig compactConfig = serializationConfig.getCompactSerializationConfig();
+        
+        for (CompactSerializer<?> serializer : compactSerializers) {
+            compactConfig.addSerializer(serializer);
+            compactTypes.add(serializer.getCompactClass());
+            logger.info("Registered Compact serializer {} for payload type {}",
+                serializer.getTypeName(), serializer.getCompactClass().getName());
+        }
+        
+        for (String className : hazelcastProperties.getSerialization().getCompactClasses()) {
+            Class<?> payloadClass = ClassUtils.resolveClassName(className, ClassUtils.getDefaultClassLoader());
+            compactConfig.addClass(payloadClass);
+            compactTypes.add(payloadClass);
+            logger.info("Registered reflective Compact serialization for payload type {}", className);
+        }
+    }
+    
+    /**
+     * Determines the codec Hazelcast will use for the payload and records it. Rejects
+     * payloads that would need Java serialization when the fallback is disabled.
+     */
+    public PayloadCodec resolve(Object value) {
+        PayloadCodec codec = codecFor(value);
+        if (codec == PayloadCodec.JAVA && !hazelcastProperties.getSerialization().isJavaFallback()) {
+            throw new IllegalArgumentException("No Compact codec registered for payload type "
+                + value.getClass().getName() + " and Java serialization fallback is disabled");
+        }
+        meterRegistry.counter("workflow.hazelcast.payload.codec", "codec", codec.name().toLowerCase()).increment();
+        return codec;
+    }
+    
+    private PayloadCodec codecFor(Object value) {
+        if (value == null || BUILTIN_TYPES.contains(value.getClass())) {
+            return PayloadCodec.BUILTIN;
+        }
+        if (value instanceof GenericRecord || compactTypes.contains(value.getClass())) {
+            return PayloadCodec.COMPACT;
+        }
+        if (value instanceof Serializable) {
+            return PayloadCodec.JAVA;
+        }
+        // Hazelcast applies zero-config Compact serialization to everything else
+        return PayloadCodec.COMPACT;
+    }
+    
+    /**
+     * Converts a value read from Hazelcast into something the engine can store as a process
+     * variable. Compact payloads whose class is not on this member's classpath arrive as
+     * GenericRecord and are exposed as a map of their fields.
+     */
+    public Object toVariableValue(Object value) {
+        if (value instanceof GenericRecord) {
+            return toMap((GenericRecord) value);
+        }
+        return value;
+    }
+    
+    private Map<String, Object> toMap(GenericRecord record) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (String name : record.getFieldNames()) {
+            FieldKind kind = record.getFieldKind(name);
+            switch (kind) {
+                case BOOLEAN -> fields.put(name, record.getBoolean(name));
+                case INT8 -> fields.put(name, record.getInt8(name));
+                case INT16 -> fields.put(name, record.getInt16(name));
+                case INT32 -> fields.put(name, record.getInt32(name));
+                case INT64 -> fields.put(name, record.getInt64(name));
+                case FLOAT32 -> fields.put(name, record.getFloat32(name));
+                case FLOAT64 -> fields.put(name, record.getFloat64(name));
+                case NULLABLE_BOOLEAN -> fields.put(name, record.getNullableBoolean(name));
+                case NULLABLE_INT8 -> fields.put(name, record.getNullableInt8(name));
+                case NULLABLE_INT16 -> fields.put(name, record.getNullableInt16(name));
+                case NULLABLE_INT32 -> fields.put(name, record.getNullableInt32(name));
+                case NULLABLE_INT64 -> fields.put(name, record.getNullableInt64(name));
+                case NULLABLE_FLOAT32 -> fields.put(name, record.getNullableFloat32(name));
+                case NULLABLE_FLOAT64 -> fields.put(name, record.getNullableFloat64(name));
+                case STRING -> fields.put(name, record.getString(name));
+                case DECIMAL -> fields.put(name, record.getDecimal(name));
+                case DATE -> fields.put(name, record.getDate(name));
+                case TIME -> fields.put(name, record.getTime(name));
+                case TIMESTAMP -> fields.put(name, record.getTimestamp(name));
+                case TIMESTAMP_WITH_TIMEZONE -> fields.put(name, record.getTimestampWithTimezone(name));
+                case ARRAY_OF_STRING -> fields.put(name, record.getArrayOfString(name));
+                case COMPACT -> {
+                    GenericRecord nested = record.getGenericRecord(name);
+                    fields.put(name, nested != null ? toMap(nested) : null);
+                }
+                case ARRAY_OF_COMPACT -> {
+                    GenericRecord[] nested = record.getArrayOfGenericRecord(name);
+                    List<Map<String, Object>> items = null;
+                    if (nested != null) {
+                        items = new ArrayList<>(nested.length);
+                        for (GenericRecord item : nested) {
+                            items.add(item != null ? toMap(item) : null);
+                        }
+                    }
+                    fields.put(name, items);
+                }
+                default -> logger.debug("Skipping field {} of unsupported kind {}", name, kind);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.workflow.serialization;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import org.springframework.session.MapSession;
+import org.springframework.session.hazelcast.HazelcastSessionSerializer;
+
+/**
+ * Serializers for the HTTP sessions Spring Session keeps in Hazelcast. Without them every
+ * session save Java-serializes the MapSession with all of its attributes, class descriptors
+ * included, on the owner and again for the backup. Spring Session's stream serializer
+ * writes the session fields directly and hands each attribute to Hazelcast, which picks
+ * the Compact serializers below for the Camunda webapp login state. Other attributes keep
+ * their usual serializer.
+ *
+ * Members and clients of one cluster must agree on this, a session written in one format
+ * cannot be read by a node using the other.
+ */
+public final class SessionSerializers {
+    
+    private SessionSerializers() {
+    }
+    
+    public static void applyTo(SerializationConfig serializationConfig) {
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setImplementation(new HazelcastSessionSerializer())
+            .setTypeClass(MapSession.class));
+        serializationConfig.getCompactSerializationConfig()
+            .addSerializer(new UserAuthenticationSerializer())
+            .addSerializer(new AuthenticationsSerializer());
+    }
+}
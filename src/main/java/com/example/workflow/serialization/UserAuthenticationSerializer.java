@@ -0,0 +1,65 @@
+package com.example.workflow.serialization;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.camunda.bpm.webapp.impl.security.auth.UserAuthentication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Compact serializer for the per-engine login of a Camunda webapp user.
+ */
+public class UserAuthenticationSerializer implements CompactSerializer<UserAuthentication> {
+    
+    public static final String TYPE_NAME = "CamundaUserAuthentication";
+    
+    @Override
+    public UserAuthentication read(CompactReader reader) {
+        UserAuthentication authentication = new UserAuthentication(
+            reader.readString("identityId"),
+            reader.readString("processEngineName"));
+        authentication.setGroupIds(toList(reader.readArrayOfString("groupIds")));
+        authentication.setTenantIds(toList(reader.readArrayOfString("tenantIds")));
+        String[] authorizedApps = reader.readArrayOfString("authorizedApps");
+        authentication.setAuthorizedApps(authorizedApps != null ? new HashSet<>(Arrays.asList(authorizedApps)) : null);
+        Long cacheValidationTime = reader.readNullableInt64("cacheValidationTime");
+        authentication.setCacheValidationTime(cacheValidationTime != null ? new Date(cacheValidationTime) : null);
+        return authentication;
+    }
+    
+    @Override
+    public void write(CompactWriter writer, UserAuthentication authentication) {
+        writer.writeString("identityId", authentication.getIdentityId());
+        writer.writeString("processEngineName", authentication.getProcessEngineName());
+        writer.writeArrayOfString("groupIds", toArray(authentication.getGroupIds()));
+        writer.writeArrayOfString("tenantIds", toArray(authentication.getTenantIds()));
+        writer.writeArrayOfString("authorizedApps", toArray(authentication.getAuthorizedApps()));
+        Date cacheValidationTime = authentication.getCacheValidationTime();
+        writer.writeNullableInt64("cacheValidationTime", cacheValidationTime != null ? cacheValidationTime.getTime() : null);
+    }
+    
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+    
+    @Override
+    public Class<UserAuthentication> getCompactClass() {
+        return UserAuthentication.class;
+    }
+    
+    private static String[] toArray(Collection<String> values) {
+        return values != null ? values.toArray(new String[0]) : null;
+    }
+    
+    private static List<String> toList(String[] values) {
+        // The webapp adds to these lists when it refreshes a login
+        return values != null ? new ArrayList<>(Arrays.asList(values)) : null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.workflow.serialization;
+
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+
+/**
+ * Compact serializer for {@link WorkflowDataKey}. The fields stay queryable, e.g. as
+ * {@code __key.processInstanceId} in predicates and indexes.
+ */
+public class WorkflowDataKeySerializer implements CompactSerializer<WorkflowDataKey> {
+    
+    public static final String TYPE_NAME = "WorkflowDataKey";
+    
+    @Override
+    public WorkflowDataKey read(CompactReader reader) {
+        return new WorkflowDataKey(reader.readString("processInstanceId"), reader.readString("activityId"));
+    }
+    
+    @Override
+    public void write(CompactWriter writer, WorkflowDataKey key) {
+        writer.writeString("processInstanceId", key.getProcessInstanceId());
+        writer.writeString("activityId", key.getActivityId());
+    }
+    
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+    
+    @Override
+    public Class<WorkflowDataKey> getCompactClass() {
+        return WorkflowDataKey.class;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.workflow.tasks;
+
+import com.example.workflow.config.HazelcastProperties;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.delegate.BpmnError;
+import org.camunda.bpm.engine.impl.bpmn.behavior.AbstractBpmnActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.helper.BpmnExceptionHandler;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Base class for service tasks that complete when a Hazelcast future resolves instead of
+ * blocking a job-executor thread for the round trip. The execution waits in the activity,
+ * the operation is started once that wait state is committed, and the completion executor
+ * signals the execution with the resulting variables.
+ *
+ * Entering the activity also schedules a recovery job. If the signal does not commit, e.g.
+ * because the node died after the wait state was committed or the completion executor was
+ * saturated, the job repeats the operation and signals the execution itself, with the
+ * engine's job retries and an incident once they are used up. Whichever of the two comes
+ * second finds the execution no longer waiting and does nothing.
+ */
+public abstract class AsyncHazelcastActivityBehavior extends AbstractBpmnActivityBehavior implements BeanNameAware {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncHazelcastActivityBehavior.class);
+    
+    static final String SIGNAL_FAILED = "hazelcastFailed";
+    
+    // Local variable holding the recovery job of the handoff the execution waits for
+    static final String RECOVERY_JOB_VARIABLE = "hazelcast_recovery_job";
+    
+    private static final int SIGNAL_ATTEMPTS = 3;
+    
+    @Autowired
+    private ProcessEngineConfigurationImpl processEngineConfiguration;
+    
+    @Autowired
+    private HandoffCompletionExecutor completionExecutor;
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    private String beanName;
+    
+    /**
+     * Outcome of a handoff: the variables to set when signalling the execution and an action
+     * to run once that signal has committed.
+     */
+    protected static final class Completion {
+        
+        private final Map<String, Object> variables;
+        private final Runnable afterCommit;
+        
+        public Completion(Map<String, Object> variables, Runnable afterCommit) {
+            this.variables = variables;
+            this.afterCommit = afterCommit;
+        }
+        
+        public static Completion of(Map<String, Object> variables) {
+            return new Completion(variables, () -> { });
+        }
+        
+        public static Completion empty() {
+            return of(Collections.emptyMap());
+        }
+    }
+    
+    /**
+     * Prepares the Hazelcast operation inside the engine transaction. The returned supplier
+     * is invoked after commit, or by the recovery job, and must be safe to run again.
+     */
+    protected abstract Supplier<CompletionStage<Completion>> prepare(ActivityExecution execution);
+    
+    protected abstract String getErrorCode();
+    
+    @Override
+    public void setBeanName(String beanName) {
+        this.beanName = beanName;
+    }
+    
+    @Override
+    public void execute(ActivityExecution execution) throws Exception {
+        final String executionId = execution.getId();
+        
+        Supplier<CompletionStage<Completion>> operation;
+        try {
+            operation = prepare(execution);
+        } catch (Exception e) {
+            logger.error("Error preparing asynchronous Hazelcast operation", e);
+            throw new BpmnError(getErrorCode(), "Failed to prepare Hazelcast operation: " + e.getMessage());
+        }
+        
+        final String jobId = HandoffRecoveryJobHandler.schedule((ExecutionEntity) execution, beanName,
+            hazelcastProperties.getAsync().getRecoveryDelaySeconds());
+        execution.setVariableLocal(RECOVERY_JOB_VARIABLE, jobId);
+        
+        // Signalling before the wait state is committed would race with this transaction,
+        // so the operation is only started once the execution is visible to other threads
+        Context.getCommandContext().getTransactionContext().addTransactionListener(
+            TransactionState.COMMITTED, commandContext -> start(executionId, jobId, operation));
+    }
+    
+    private void start(String executionId, String jobId, Supplier<CompletionStage<Completion>> operation) {
+        completionExecutor.started();
+        CompletionStage<Completion> stage;
+        try {
+            stage = operation.get();
+        } catch (RuntimeException e) {
+            completionExecutor.execute(() -> complete(executionId, jobId, null, e));
+            return;
+        }
+        stage.whenCompleteAsync((completion, failure) -> complete(executionId, jobId, completion, failure),
+            completionExecutor::execute);
+    }
+    
+    private void complete(String executionId, String jobId, Completion completion, Throwable failure) {
+        try {
+            if (failure != null) {
+                logger.error("Asynchronous Hazelcast operation failed for execution {}", executionId, failure);
+            }
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    processEngineConfiguration.getCommandExecutorTxRequired().execute(commandContext ->
+                        completeWaiting(commandContext, executionId, jobId, completion, failure, false));
+                    return;
+                } catch (OptimisticLockingException e) {
+                    // Another transaction changed the process instance meanwhile, retry on its state
+                    if (attempt == SIGNAL_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to signal execution {} after Hazelcast operation, recovery job {} takes over",
+                executionId, jobId, e);
+        } finally {
+            completionExecutor.finished();
+        }
+    }
+    
+    /**
+     * Run by the recovery job when the execution still waits for the handoff. Failures are
+     * left to the job's retries.
+     */
+    void recover(CommandContext commandContext, ExecutionEntity execution, String jobId) throws Exception {
+        if (!isWaitingFor(execution, jobId)) {
+            return;
+        }
+        logger.warn("Recovering handoff of execution {} in activity {}", execution.getId(), execution.getCurrentActivityId());
+        Completion completion = prepare(execution).get().toCompletableFuture()
+            .get(hazelcastProperties.getAsync().getRecoveryDelaySeconds(), TimeUnit.SECONDS);
+        completeWaiting(commandContext, execution.getId(), jobId, completion, null, true);
+    }
+    
+    private Void completeWaiting(CommandContext commandContext, String executionId, String jobId,
+                                 Completion completion, Throwable failure, boolean fromRecoveryJob) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(executionId);
+        if (!isWaitingFor(execution, jobId)) {
+            logger.debug("Execution {} no longer waits for handoff {}", executionId, jobId);
+            return null;
+        }
+        execution.removeVariableLocal(RECOVERY_JOB_VARIABLE);
+        if (!fromRecoveryJob) {
+            JobEntity job = commandContext.getJobManager().findJobById(jobId);
+            if (job != null) {
+                job.delete();
+            }
+        }
+        
+        if (failure != null) {
+            execution.signal(SIGNAL_FAILED, failure.getMessage());
+            return null;
+        }
+        execution.setVariables(completion.variables);
+        commandContext.getTransactionContext().addTransactionListener(
+            TransactionState.COMMITTED, ignored -> completion.afterCommit.run());
+        execution.signal(null, null);
+        return null;
+    }
+    
+    private static boolean isWaitingFor(ExecutionEntity execution, String jobId) {
+        return execution != null && jobId.equals(execution.getVariableLocal(RECOVERY_JOB_VARIABLE));
+    }
+    
+    @Override
+    public void signal(ActivityExecution execution, String signalName, Object signalData) throws Exception {
+        if (SIGNAL_FAILED.equals(signalName)) {
+            BpmnExceptionHandler.propagateBpmnError(
+                new BpmnError(getErrorCode(), "Asynchronous Hazelcast operation failed: " + signalData), execution);
+        } else {
+            // The base behavior rejects signals, the wait state is left like any completed activity
+            leave(execution);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.workflow.tasks;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opt-in writer that gathers puts from concurrent delegate executions and flushes them
+ * as one putAllAsync per map, which Hazelcast splits into per-partition operations.
+ * Each caller still blocks only until the batch holding its own entry is acknowledged.
+ */
+@Component
+public class BatchingMapWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchingMapWriter.class);
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    
+    private volatile boolean running;
+    
+    private Thread flusher;
+    
+    private DistributionSummary batchSizes;
+    
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        batchSizes = DistributionSummary.builder("workflow.hazelcast.batch.size")
+            .description("Entries flushed per batched putAllAsync")
+            .register(meterRegistry);
+        
+        running = true;
+        flusher = new Thread(this::flushLoop, "hz-batch-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+    
+    public boolean isEnabled() {
+        return hazelcastProperties.getMap().getBatching().isEnabled();
+    }
+    
+    /**
+     * Queues the entry for the next batch and waits until that batch is acknowledged.
+     */
+    public void put(String mapName, Object key, Object value)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        entries.put(key, value);
+        putAll(mapName, entries);
+    }
+    
+    /**
+     * Queues the entries together and waits until every batch holding one of them is acknowledged.
+     */
+    public void putAll(String mapName, Map<Object, Object> entries)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (!running) {
+            throw new IllegalStateException("Batching writer is not running");
+        }
+        List<PendingWrite> writes = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> writes.add(new PendingWrite(mapName, key, value)));
+        queue.addAll(writes);
+        CompletableFuture.allOf(writes.stream().map(write -> write.acknowledged).toArray(CompletableFuture[]::new))
+            .get(hazelcastProperties.getMap().getBatching().getAckTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    private void flushLoop() {
+        HazelcastProperties.Batching batching = hazelcastProperties.getMap().getBatching();
+        int maxBatchSize = Math.max(1, batching.getMaxBatchSize());
+        long maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(batching.getMaxDelayMicros());
+        
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                
+                // Take whatever is already queued, then wait out the window for stragglers
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+    
+    private void flush(List<PendingWrite> batch) {
+        batchSizes.record(batch.size());
+        
+        Map<String, List<PendingWrite>> byMap = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            byMap.computeIfAbsent(write.mapName, name -> new ArrayList<>()).add(write);
+        }
+        
+        byMap.forEach((mapName, writes) -> {
+            // A later put for the same key wins, as it would with sequential IMap.put calls
+            Map<Object, Object> entries = new LinkedHashMap<>();
+            for (PendingWrite write : writes) {
+                entries.put(write.key, write.value);
+            }
+            try {
+                IMap<Object, Object> map = hazelcastInstance.getMap(mapName);
+                map.putAllAsync(entries).whenComplete((ignored, failure) -> {
+                    for (PendingWrite write : writes) {
+                        if (failure == null) {
+                            write.acknowledged.complete(null);
+                        } else {
+                            write.acknowledged.completeExceptionally(failure);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.error("Error flushing batch of {} entries to map {}", writes.size(), mapName, e);
+                writes.forEach(write -> write.acknowledged.completeExceptionally(e));
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+    
+    private static final class PendingWrite {
+        private final String mapName;
+        private final Object key;
+        private final Object value;
+        private final CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+        
+        private PendingWrite(String mapName, Object key, Object value) {
+            this.mapName = mapName;
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
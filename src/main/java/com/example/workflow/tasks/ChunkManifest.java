@@ -0,0 +1,54 @@
+package com.example.workflow.tasks;
+
+/**
+ * Stored in the workflow map in place of a payload that was split into chunks. The chunks
+ * live in a separate map under {@code payloadId:index} keys, spread across partitions.
+ */
+public final class ChunkManifest {
+    
+    public static final String ENCODING_BYTES = "bytes";
+    public static final String ENCODING_STRING = "string";
+    
+    private final String payloadId;
+    private final String chunkMapName;
+    private final int chunkCount;
+    private final long totalBytes;
+    private final String encoding;
+    
+    public ChunkManifest(String payloadId, String chunkMapName, int chunkCount, long totalBytes, String encoding) {
+        this.payloadId = payloadId;
+        this.chunkMapName = chunkMapName;
+        this.chunkCount = chunkCount;
+        this.totalBytes = totalBytes;
+        this.encoding = encoding;
+    }
+    
+    public String getPayloadId() {
+        return payloadId;
+    }
+    
+    public String getChunkMapName() {
+        return chunkMapName;
+    }
+    
+    public int getChunkCount() {
+        return chunkCount;
+    }
+    
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    public String getEncoding() {
+        return encoding;
+    }
+    
+    public String chunkKey(int index) {
+        return payloadId + ":" + index;
+    }
+    
+    @Override
+    public String toString() {
+        return "ChunkManifest{payloadId=" + payloadId + ", chunks=" + chunkCount + ", bytes=" + totalBytes + "}";
+    }
+}
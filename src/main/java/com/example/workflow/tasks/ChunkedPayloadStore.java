@@ -0,0 +1,200 @@
+package com.example.workflow.tasks;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Splits large handoff payloads into bounded chunks so that no single entry blocks a
+ * partition thread, triggers humongous G1 allocations on members or slows down backups.
+ * Chunks are written in parallel to a separate map and the workflow map only holds a
+ * {@link ChunkManifest}. Byte arrays and strings are chunked; other types are stored whole.
+ * Chunks and unchunked payloads alike pass through the {@link PayloadCompressor}.
+ */
+@Component
+public class ChunkedPayloadStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedPayloadStore.class);
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private PayloadCompressor payloadCompressor;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Writes the payload as chunks when it is at or above the threshold. Completes with the
+     * manifest to store in its place, or with the (possibly compressed) payload itself when
+     * it is not chunked.
+     */
+    public CompletionStage<Object> storeAsync(String mapName, Object value) {
+        HazelcastProperties.Chunking chunking = hazelcastProperties.getMap().getChunking();
+        if (!chunking.isEnabled()) {
+            return CompletableFuture.completedFuture(payloadCompressor.compress(mapName, value));
+        }
+        
+        byte[] bytes;
+        String encoding;
+        if (value instanceof byte[]) {
+            bytes = (byte[]) value;
+            encoding = ChunkManifest.ENCODING_BYTES;
+        } else if (value instanceof String && ((String) value).length() * 3L >= chunking.getThresholdBytes()) {
+            // UTF-8 needs at most three bytes per char, so shorter strings can never reach the threshold
+            bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            encoding = ChunkManifest.ENCODING_STRING;
+        } else {
+            return CompletableFuture.completedFuture(payloadCompressor.compress(mapName, value));
+        }
+        if (bytes.length < chunking.getThresholdBytes()) {
+            return CompletableFuture.completedFuture(payloadCompressor.compress(mapName, value));
+        }
+        
+        int chunkSize = Math.max(1, chunking.getChunkSizeBytes());
+        int chunkCount = (int) ((bytes.length + (long) chunkSize - 1) / chunkSize);
+        ChunkManifest manifest = new ChunkManifest(
+            UUID.randomUUID().toString(), chunking.getMapName(), chunkCount, bytes.length, encoding);
+        IMap<String, Object> chunks = hazelcastInstance.getMap(manifest.getChunkMapName());
+        
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            byte[] chunk = Arrays.copyOfRange(bytes, i * chunkSize, Math.min(bytes.length, (i + 1) * chunkSize));
+            Object stored = payloadCompressor.compress(manifest.getChunkMapName(), chunk);
+            writes[i] = chunks.setAsync(manifest.chunkKey(i), stored).toCompletableFuture();
+        }
+        
+        return CompletableFuture.allOf(writes).handle((ignored, failure) -> {
+            if (failure != null) {
+                delete(manifest);
+                throw new IllegalStateException("Failed to write chunks of payload " + manifest.getPayloadId(), failure);
+            }
+            meterRegistry.summary("workflow.hazelcast.chunked.payload.bytes").record(bytes.length);
+            logger.debug("Stored payload of {} bytes as {} chunks", bytes.length, chunkCount);
+            return manifest;
+        });
+    }
+    
+    public Object store(String mapName, Object value) throws InterruptedException, ExecutionException {
+        return storeAsync(mapName, value).toCompletableFuture().get();
+    }
+    
+    /**
+     * Reassembles a chunked payload read from the workflow map and inflates a compressed one;
+     * any other value is returned unchanged. When consuming, the chunks are deleted once they
+     * have been read.
+     */
+    public Object load(Object stored, boolean consume) throws IOException {
+        if (!(stored instanceof ChunkManifest)) {
+            return payloadCompressor.decompress(stored);
+        }
+        ChunkManifest manifest = (ChunkManifest) stored;
+        try (InputStream in = openStream(manifest)) {
+            return decode(manifest, in.readAllBytes());
+        } finally {
+            if (consume) {
+                delete(manifest);
+            }
+        }
+    }
+    
+    public CompletionStage<Object> loadAsync(Object stored, boolean consume) {
+        if (!(stored instanceof ChunkManifest)) {
+            return CompletableFuture.completedFuture(payloadCompressor.decompress(stored));
+        }
+        ChunkManifest manifest = (ChunkManifest) stored;
+        List<CompletableFuture<byte[]>> reads = fetch(manifest);
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            try (InputStream in = stream(manifest, reads)) {
+                return decode(manifest, in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((value, failure) -> {
+            if (consume) {
+                delete(manifest);
+            }
+        });
+    }
+    
+    /**
+     * Opens a stream over the payload. All chunks are requested in parallel up front and
+     * the stream hands each one out as soon as it has arrived, in order.
+     */
+    public InputStream openStream(ChunkManifest manifest) {
+        return stream(manifest, fetch(manifest));
+    }
+    
+    private List<CompletableFuture<byte[]>> fetch(ChunkManifest manifest) {
+        IMap<String, Object> chunks = hazelcastInstance.getMap(manifest.getChunkMapName());
+        List<CompletableFuture<byte[]>> reads = new ArrayList<>(manifest.getChunkCount());
+        for (int i = 0; i < manifest.getChunkCount(); i++) {
+            reads.add(chunks.getAsync(manifest.chunkKey(i)).toCompletableFuture()
+                .thenApply(chunk -> (byte[]) payloadCompressor.decompress(chunk)));
+        }
+        return reads;
+    }
+    
+    private InputStream stream(ChunkManifest manifest, List<CompletableFuture<byte[]>> reads) {
+        Iterator<CompletableFuture<byte[]>> iterator = reads.iterator();
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            private int index;
+            
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+            
+            @Override
+            public InputStream nextElement() {
+                byte[] chunk = iterator.next().join();
+                if (chunk == null) {
+                    throw new IllegalStateException("Chunk " + index + " of payload " + manifest.getPayloadId() + " is missing");
+                }
+                index++;
+                return new ByteArrayInputStream(chunk);
+            }
+        });
+    }
+    
+    private Object decode(ChunkManifest manifest, byte[] bytes) {
+        return ChunkManifest.ENCODING_STRING.equals(manifest.getEncoding())
+            ? new String(bytes, StandardCharsets.UTF_8)
+            : bytes;
+    }
+    
+    /**
+     * Deletes the chunks of a payload without waiting for the result.
+     */
+    public void delete(ChunkManifest manifest) {
+        IMap<String, Object> chunks = hazelcastInstance.getMap(manifest.getChunkMapName());
+        for (int i = 0; i < manifest.getChunkCount(); i++) {
+            chunks.deleteAsync(manifest.chunkKey(i));
+        }
+    }
+}
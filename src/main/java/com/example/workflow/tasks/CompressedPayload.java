@@ -0,0 +1,38 @@
+package com.example.workflow.tasks;
+
+/**
+ * Stored in place of a byte[] or String payload that was deflated on the way into
+ * Hazelcast. Readers inflate it back to the original type.
+ */
+public final class CompressedPayload {
+    
+    public static final String ENCODING_BYTES = "bytes";
+    public static final String ENCODING_STRING = "string";
+    
+    private final String encoding;
+    private final int uncompressedSize;
+    private final byte[] data;
+    
+    public CompressedPayload(String encoding, int uncompressedSize, byte[] data) {
+        this.encoding = encoding;
+        this.uncompressedSize = uncompressedSize;
+        this.data = data;
+    }
+    
+    public String getEncoding() {
+        return encoding;
+    }
+    
+    public int getUncompressedSize() {
+        return uncompressedSize;
+    }
+    
+    public byte[] getData() {
+        return data;
+    }
+    
+    @Override
+    public String toString() {
+        return "CompressedPayload{encoding=" + encoding + ", bytes=" + data.length + "/" + uncompressedSize + "}";
+    }
+}
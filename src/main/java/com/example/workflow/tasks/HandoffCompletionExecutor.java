@@ -0,0 +1,99 @@
+package com.example.workflow.tasks;
+
+import com.example.workflow.config.HazelcastProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small pool that completes asynchronous handoffs once their Hazelcast future resolves.
+ * Futures hold no thread while in flight, so a few threads can complete thousands of
+ * concurrent handoffs. Deliberately not an Executor bean, so Spring Boot keeps its own
+ * applicationTaskExecutor.
+ */
+@Component
+public class HandoffCompletionExecutor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HandoffCompletionExecutor.class);
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private ThreadPoolExecutor executor;
+    
+    private Counter rejected;
+    
+    @PostConstruct
+    public void start() {
+        HazelcastProperties.Async async = hazelcastProperties.getAsync();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            async.getCompletionPoolSize(), async.getCompletionPoolSize(),
+            60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(async.getCompletionQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "hz-handoff-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            // Callers are Hazelcast response threads, which must not run engine transactions
+            new ThreadPoolExecutor.AbortPolicy());
+        rejected = meterRegistry.counter("workflow.hazelcast.async.rejected");
+        
+        Gauge.builder("workflow.hazelcast.async.inflight", inFlight, AtomicInteger::get)
+            .description("Asynchronous Hazelcast handoffs awaiting completion")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Runs the completion of a started handoff. When the pool is saturated the completion is
+     * dropped and the handoff's recovery job completes it later.
+     */
+    public void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            finished();
+            logger.warn("Handoff completion queue is full, leaving the handoff to its recovery job");
+        }
+    }
+    
+    void started() {
+        inFlight.incrementAndGet();
+    }
+    
+    void finished() {
+        inFlight.decrementAndGet();
+    }
+    
+    public int inFlight() {
+        return inFlight.get();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Handoff completion executor did not drain within 30s, {} handoffs in flight", inFlight.get());
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.workflow.tasks;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.JobHandlerConfiguration;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TimerEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Job that completes an asynchronous handoff whose signal never committed. It is scheduled
+ * when the execution enters the activity, is deleted by a successful signal and otherwise
+ * runs the activity's operation again once the recovery delay has passed.
+ */
+@Component
+public class HandoffRecoveryJobHandler extends AbstractProcessEnginePlugin
+        implements JobHandler<HandoffRecoveryJobHandler.Configuration> {
+    
+    public static final String TYPE = "hazelcast-handoff-recovery";
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    /**
+     * Bean name of the activity behavior and id of the job, so the job can tell whether the
+     * execution still waits for this particular handoff.
+     */
+    public static class Configuration implements JobHandlerConfiguration {
+        
+        private final String beanName;
+        private final String jobId;
+        
+        public Configuration(String beanName, String jobId) {
+            this.beanName = beanName;
+            this.jobId = jobId;
+        }
+        
+        @Override
+        public String toCanonicalString() {
+            return beanName + ":" + jobId;
+        }
+    }
+    
+    static String schedule(ExecutionEntity execution, String beanName, int delaySeconds) {
+        String jobId = Context.getProcessEngineConfiguration().getIdGenerator().getNextId();
+        TimerEntity timer = new TimerEntity();
+        timer.setId(jobId);
+        timer.setJobHandlerType(TYPE);
+        timer.setJobHandlerConfiguration(new Configuration(beanName, jobId));
+        timer.setDuedate(new Date(ClockUtil.getCurrentTime().getTime() + delaySeconds * 1000L));
+        timer.setExecution(execution);
+        Context.getCommandContext().getJobManager().schedule(timer);
+        return jobId;
+    }
+    
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        List<JobHandler> jobHandlers = processEngineConfiguration.getCustomJobHandlers() != null
+            ? new ArrayList<>(processEngineConfiguration.getCustomJobHandlers())
+            : new ArrayList<>();
+        jobHandlers.add(this);
+        processEngineConfiguration.setCustomJobHandlers(jobHandlers);
+    }
+    
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+    
+    @Override
+    public void execute(Configuration configuration, ExecutionEntity execution, CommandContext commandContext, String tenantId) {
+        if (execution == null) {
+            // The process instance ended or was cancelled
+            return;
+        }
+        AsyncHazelcastActivityBehavior behavior =
+            applicationContext.getBean(configuration.beanName, AsyncHazelcastActivityBehavior.class);
+        try {
+            behavior.recover(commandContext, execution, configuration.jobId);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ProcessEngineException("Failed to recover handoff of execution " + execution.getId(), e);
+        }
+    }
+    
+    @Override
+    public Configuration newConfiguration(String canonicalString) {
+        int separator = canonicalString.lastIndexOf(':');
+        return new Configuration(canonicalString.substring(0, separator), canonicalString.substring(separator + 1));
+    }
+    
+    @Override
+    public void onDelete(Configuration configuration, JobEntity jobEntity) {
+        // Nothing is held outside the job itself
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.workflow.tasks;
+
+import com.example.workflow.config.HazelcastProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates byte[] and String payloads above a size threshold before they are written to
+ * Hazelcast, which cuts network and backup traffic for text payloads such as JSON. A payload
+ * is only replaced when compression actually makes it smaller.
+ */
+@Component
+public class PayloadCompressor {
+    
+    static final String UNCOMPRESSED_BYTES = "workflow.hazelcast.payload.uncompressed.bytes";
+    static final String COMPRESSED_BYTES = "workflow.hazelcast.payload.compressed.bytes";
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Returns a {@link CompressedPayload} for the value, or the value itself when it is not
+     * eligible or does not shrink.
+     */
+    public Object compress(String mapName, Object value) {
+        HazelcastProperties.Serialization serialization = hazelcastProperties.getSerialization();
+        if (!serialization.isEnableCompression()) {
+            return value;
+        }
+        
+        byte[] bytes;
+        String encoding;
+        if (value instanceof byte[]) {
+            bytes = (byte[]) value;
+            encoding = CompressedPayload.ENCODING_BYTES;
+        } else if (value instanceof String && ((String) value).length() * 3L >= serialization.getCompressionThresholdBytes()) {
+            // UTF-8 needs at most three bytes per char, so shorter strings can never reach the threshold
+            bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            encoding = CompressedPayload.ENCODING_STRING;
+        } else {
+            return value;
+        }
+        if (bytes.length < serialization.getCompressionThresholdBytes()) {
+            return value;
+        }
+        
+        byte[] compressed = deflate(bytes, serialization.getCompressionLevel());
+        meterRegistry.summary(UNCOMPRESSED_BYTES, "map", mapName).record(bytes.length);
+        if (compressed.length >= bytes.length) {
+            // Already compressed or random data; storing it deflated would only cost CPU on read
+            meterRegistry.summary(COMPRESSED_BYTES, "map", mapName).record(bytes.length);
+            return value;
+        }
+        meterRegistry.summary(COMPRESSED_BYTES, "map", mapName).record(compressed.length);
+        return new CompressedPayload(encoding, bytes.length, compressed);
+    }
+    
+    /**
+     * Inflates a {@link CompressedPayload} back to its original type; any other value is
+     * returned unchanged.
+     */
+    public Object decompress(Object value) {
+        if (!(value instanceof CompressedPayload)) {
+            return value;
+        }
+        CompressedPayload payload = (CompressedPayload) value;
+        byte[] bytes = inflate(payload);
+        return CompressedPayload.ENCODING_STRING.equals(payload.getEncoding())
+            ? new String(bytes, StandardCharsets.UTF_8)
+            : bytes;
+    }
+    
+    private static byte[] deflate(byte[] bytes, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] inflate(CompressedPayload payload) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload.getData());
+            byte[] bytes = new byte[payload.getUncompressedSize()];
+            int offset = 0;
+            while (offset < bytes.length && !inflater.finished()) {
+                int read = inflater.inflate(bytes, offset, bytes.length - offset);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += read;
+            }
+            if (offset != bytes.length) {
+                throw new IllegalStateException("Compressed payload is truncated: expected "
+                    + bytes.length + " bytes, got " + offset);
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed payload is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
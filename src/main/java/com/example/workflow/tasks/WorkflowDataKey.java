@@ -0,0 +1,73 @@
+package com.example.workflow.tasks;
+
+import com.hazelcast.partition.PartitionAware;
+
+import java.util.Objects;
+
+/**
+ * Key for workflow handoff entries. Partitioned on the process instance id, so every entry
+ * of one instance lives on the same member and multi-key reads, cleanup and entry
+ * processors stay single-partition operations.
+ */
+public final class WorkflowDataKey implements PartitionAware<String> {
+    
+    private static final char SEPARATOR = '_';
+    
+    private final String processInstanceId;
+    private final String activityId;
+    
+    public WorkflowDataKey(String processInstanceId, String activityId) {
+        this.processInstanceId = Objects.requireNonNull(processInstanceId, "processInstanceId");
+        this.activityId = Objects.requireNonNull(activityId, "activityId");
+    }
+    
+    /**
+     * Parses the {@code processInstanceId_activityId} form stored in the hazelcast_key
+     * process variable. Process instance ids never contain '_', activity ids may.
+     */
+    public static WorkflowDataKey parse(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Hazelcast key must not be null");
+        }
+        int separator = key.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == key.length() - 1) {
+            throw new IllegalArgumentException("Invalid Hazelcast key: " + key);
+        }
+        return new WorkflowDataKey(key.substring(0, separator), key.substring(separator + 1));
+    }
+    
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+    
+    public String getActivityId() {
+        return activityId;
+    }
+    
+    @Override
+    public String getPartitionKey() {
+        return processInstanceId;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WorkflowDataKey)) {
+            return false;
+        }
+        WorkflowDataKey that = (WorkflowDataKey) o;
+        return processInstanceId.equals(that.processInstanceId) && activityId.equals(that.activityId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(processInstanceId, activityId);
+    }
+    
+    @Override
+    public String toString() {
+        return processInstanceId + SEPARATOR + activityId;
+    }
+}
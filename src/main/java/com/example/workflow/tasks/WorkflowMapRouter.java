@@ -0,0 +1,122 @@
+package com.example.workflow.tasks;
+
+import com.example.workflow.config.HazelcastProperties;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.model.bpmn.instance.BaseElement;
+import org.camunda.bpm.model.bpmn.instance.ExtensionElements;
+import org.camunda.bpm.model.bpmn.instance.FlowElement;
+import org.camunda.bpm.model.bpmn.instance.Process;
+import org.camunda.bpm.model.bpmn.instance.camunda.CamundaProperties;
+import org.camunda.bpm.model.bpmn.instance.camunda.CamundaProperty;
+import org.camunda.bpm.model.xml.instance.ModelElementInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chooses the workflow map an execution hands off through. In order of precedence:
+ * a {@code hazelcast.map} extension property on the activity, the same property on the
+ * process, a map profile listing the process definition key, and finally the default map.
+ * The chosen map is stored in the {@code hazelcast_map} variable next to the key, so the
+ * reading activity finds the entry even if it routes differently itself.
+ */
+@Component
+public class WorkflowMapRouter {
+    
+    public static final String MAP_PROPERTY = "hazelcast.map";
+    public static final String MAP_VARIABLE = "hazelcast_map";
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    // Routing only depends on the deployed model, so it is resolved once per activity
+    private final Map<String, String> routes = new ConcurrentHashMap<>();
+    
+    /**
+     * Returns the map to write the current activity's entry to.
+     */
+    public String mapFor(DelegateExecution execution) {
+        String cacheKey = execution.getProcessDefinitionId() + "#" + execution.getCurrentActivityId();
+        return routes.computeIfAbsent(cacheKey, ignored -> resolve(execution));
+    }
+    
+    /**
+     * Returns the map holding the entry referenced by {@code hazelcast_key}.
+     */
+    public String mapForRead(DelegateExecution execution) {
+        Object mapName = execution.getVariable(MAP_VARIABLE);
+        return mapName != null ? checkConfigured(mapName.toString()) : mapFor(execution);
+    }
+    
+    /**
+     * Names of all configured workflow maps, the default map first.
+     */
+    public List<String> mapNames() {
+        List<String> names = new ArrayList<>();
+        names.add(hazelcastProperties.getMap().getName());
+        for (HazelcastProperties.MapProfile profile : hazelcastProperties.getMaps()) {
+            names.add(profile.getName());
+        }
+        return names;
+    }
+    
+    private String resolve(DelegateExecution execution) {
+        FlowElement element = execution.getBpmnModelElementInstance();
+        String mapName = element != null ? property(element) : null;
+        
+        Process process = element != null ? process(element) : null;
+        if (mapName == null && process != null) {
+            mapName = property(process);
+        }
+        if (mapName == null && process != null) {
+            mapName = profilesByProcessKey().get(process.getId());
+        }
+        return mapName != null ? checkConfigured(mapName) : hazelcastProperties.getMap().getName();
+    }
+    
+    private Map<String, String> profilesByProcessKey() {
+        Map<String, String> byKey = new HashMap<>();
+        for (HazelcastProperties.MapProfile profile : hazelcastProperties.getMaps()) {
+            for (String processKey : profile.getProcessDefinitionKeys()) {
+                byKey.put(processKey, profile.getName());
+            }
+        }
+        return byKey;
+    }
+    
+    private String checkConfigured(String mapName) {
+        // An unconfigured name would silently create a map with Hazelcast defaults
+        if (!mapNames().contains(mapName)) {
+            throw new IllegalArgumentException("Workflow map '" + mapName + "' is not configured in hazelcast.map or hazelcast.maps");
+        }
+        return mapName;
+    }
+    
+    private static Process process(ModelElementInstance element) {
+        ModelElementInstance current = element;
+        while (current != null && !(current instanceof Process)) {
+            current = current.getParentElement();
+        }
+        return (Process) current;
+    }
+    
+    private static String property(BaseElement element) {
+        ExtensionElements extensionElements = element.getExtensionElements();
+        if (extensionElements == null) {
+            return null;
+        }
+        for (CamundaProperties properties : extensionElements.getElementsQuery().filterByType(CamundaProperties.class).list()) {
+            for (CamundaProperty property : properties.getCamundaProperties()) {
+                if (MAP_PROPERTY.equals(property.getCamundaName())) {
+                    return property.getCamundaValue();
+                }
+            }
+        }
+        return null;
+    }
+}
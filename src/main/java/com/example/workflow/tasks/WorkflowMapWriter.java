@@ -0,0 +1,71 @@
+package com.example.workflow.tasks;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes handoff entries to a workflow map, whether they come straight from
+ * putServiceDelegate or from the transactional write buffer. Large payloads are chunked
+ * or compressed, writes go through the batching writer when it is enabled, and every
+ * write is timed.
+ */
+@Component
+public class WorkflowMapWriter {
+    
+    static final String WRITE_TIMER = "workflow.hazelcast.write";
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @Autowired
+    private BatchingMapWriter batchingMapWriter;
+    
+    @Autowired
+    private ChunkedPayloadStore chunkedPayloadStore;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    public void write(String mapName, Object key, Object value) throws Exception {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        entries.put(key, value);
+        writeAll(mapName, entries);
+    }
+    
+    /**
+     * Writes the entries and returns once all of them are acknowledged.
+     */
+    public void writeAll(String mapName, Map<Object, Object> entries) throws Exception {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Large payloads are written as chunks and replaced by their manifest, others may be compressed
+        Map<Object, Object> stored = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            stored.put(entry.getKey(), chunkedPayloadStore.store(mapName, entry.getValue()));
+        }
+        if (batchingMapWriter.isEnabled()) {
+            // Blocks only until the batches carrying these entries are acknowledged
+            batchingMapWriter.putAll(mapName, stored);
+            sample.stop(meterRegistry.timer(WRITE_TIMER, "map", mapName, "mode", "batched"));
+            return;
+        }
+        IMap<Object, Object> map = hazelcastInstance.getMap(mapName);
+        if (stored.size() == 1) {
+            // set, unlike put, does not return the old value, so a miss is not loaded from a map store
+            Map.Entry<Object, Object> entry = stored.entrySet().iterator().next();
+            map.set(entry.getKey(), entry.getValue());
+        } else {
+            map.putAll(stored);
+        }
+        sample.stop(meterRegistry.timer(WRITE_TIMER, "map", mapName, "mode", "put"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.workflow.tasks;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.example.workflow.serialization.PayloadCodecRegistry;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of getServiceDelegate. The entry is read with getAsync and stored
+ * as retrieved_data when the activity is signalled. It is deleted, chunks included, only
+ * once that signal has committed, so a handoff that has to be recovered can read it again.
+ */
+@Component("asyncGetServiceDelegate")
+public class asyncGetServiceDelegate extends AsyncHazelcastActivityBehavior {
+    
+    private static final Logger logger = LoggerFactory.getLogger(asyncGetServiceDelegate.class);
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @Autowired
+    private WorkflowMapRouter workflowMapRouter;
+    
+    @Autowired
+    private PayloadCodecRegistry payloadCodecRegistry;
+    
+    @Autowired
+    private ChunkedPayloadStore chunkedPayloadStore;
+    
+    @Override
+    protected Supplier<CompletionStage<Completion>> prepare(ActivityExecution execution) {
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap(workflowMapRouter.mapForRead(execution));
+        final WorkflowDataKey key = WorkflowDataKey.parse((String) execution.getVariable("hazelcast_key"));
+        
+        return () -> map.getAsync(key).thenCompose(stored -> chunkedPayloadStore.loadAsync(stored, false).thenApply(value -> {
+            if (value != null) {
+                logger.info("Retrieved data from Hazelcast asynchronously: key={}, value={}", key, value);
+            } else {
+                logger.warn("No data found in Hazelcast for key: {}", key);
+            }
+            // HashMap, since retrieved_data is explicitly set to null on a miss
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("retrieved_data", payloadCodecRegistry.toVariableValue(value));
+            return new Completion(variables, () -> delete(map, key, stored));
+        }));
+    }
+    
+    private void delete(IMap<WorkflowDataKey, Object> map, WorkflowDataKey key, Object stored) {
+        if (stored == null) {
+            return;
+        }
+        map.deleteAsync(key).exceptionally(throwable -> {
+            logger.error("Error deleting key: {}", key, throwable);
+            return null;
+        });
+        if (stored instanceof ChunkManifest manifest) {
+            chunkedPayloadStore.delete(manifest);
+        }
+    }
+    
+    @Override
+    protected String getErrorCode() {
+        return "HAZELCAST_GET_ERROR";
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.workflow.tasks;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.example.workflow.serialization.PayloadCodecRegistry;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of putServiceDelegate. The entry is written with setAsync and
+ * the activity completes when Hazelcast acknowledges the write. Chunked payloads are
+ * written with putAsync instead, so the chunks of a manifest they replace can be deleted.
+ */
+@Component("asyncPutServiceDelegate")
+public class asyncPutServiceDelegate extends AsyncHazelcastActivityBehavior {
+    
+    private static final Logger logger = LoggerFactory.getLogger(asyncPutServiceDelegate.class);
+    
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+    
+    @Autowired
+    private WorkflowMapRouter workflowMapRouter;
+    
+    @Autowired
+    private PayloadCodecRegistry payloadCodecRegistry;
+    
+    @Autowired
+    private ChunkedPayloadStore chunkedPayloadStore;
+    
+    @Override
+    protected Supplier<CompletionStage<Completion>> prepare(ActivityExecution execution) {
+        String activityId = execution.getCurrentActivityId();
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap(workflowMapRouter.mapFor(execution));
+        
+        // Use process instance ID as key for data isolation; it also selects the partition
+        WorkflowDataKey key = new WorkflowDataKey(execution.getProcessInstanceId(), activityId);
+        
+        Object data = execution.getVariable("data");
+        final Object value = data != null ? data : "default_value_from_" + activityId;
+        payloadCodecRegistry.resolve(value);
+        
+        // Set the key as process variable for retrieval by other tasks
+        execution.setVariable("hazelcast_key", key.toString());
+        execution.setVariable(WorkflowMapRouter.MAP_VARIABLE, map.getName());
+        
+        return () -> chunkedPayloadStore.storeAsync(map.getName(), value)
+            .thenCompose(stored -> write(map, key, stored))
+            .thenApply(ignored -> {
+                logger.info("Stored data in Hazelcast asynchronously: key={}, value={}", key, value);
+                return Completion.empty();
+            });
+    }
+    
+    private CompletionStage<?> write(IMap<WorkflowDataKey, Object> map, WorkflowDataKey key, Object stored) {
+        if (!(stored instanceof ChunkManifest manifest)) {
+            return map.setAsync(key, stored);
+        }
+        // A repeated attempt, e.g. by the recovery job, writes new chunks; those of the
+        // manifest it replaces would otherwise stay until their TTL
+        return map.putAsync(key, manifest).thenAccept(previous -> {
+            if (previous instanceof ChunkManifest replaced && !replaced.getPayloadId().equals(manifest.getPayloadId())) {
+                chunkedPayloadStore.delete(replaced);
+            }
+        });
+    }
+    
+    @Override
+    protected String getErrorCode() {
+        return "HAZELCAST_PUT_ERROR";
+    }
+}
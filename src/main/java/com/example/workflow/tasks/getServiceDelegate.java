@@ -7,45 +7,67 @@ import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.BpmnError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.workflow.config.HazelcastProperties;
+import com.example.workflow.engine.TransactionalWriteBuffer;
+import com.example.workflow.serialization.PayloadCodecRegistry;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Component("getServiceDelegate")
 public class getServiceDelegate implements JavaDelegate {
     
     private static final Logger logger = LoggerFactory.getLogger(getServiceDelegate.class);
     
+    static final String READ_TIMER = "workflow.hazelcast.read";
+    
     @Autowired
     private HazelcastInstance hazelcastInstance;
     
+    @Autowired
+    private WorkflowMapRouter workflowMapRouter;
+    
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+    
+    @Autowired
+    private PayloadCodecRegistry payloadCodecRegistry;
+    
+    @Autowired
+    private TransactionalWriteBuffer transactionalWriteBuffer;
+    
+    @Autowired
+    private ChunkedPayloadStore chunkedPayloadStore;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String activityId = execution.getCurrentActivityId();
         
         try {
             // Retrieve workflow data from Hazelcast
-            IMap<String, Object> map = hazelcastInstance.getMap("myMap");
+            IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap(workflowMapRouter.mapForRead(execution));
             
             // Try to get the key from process variables (set by putServiceDelegate)
-            final String key = (String) execution.getVariable("hazelcast_key");
+            final WorkflowDataKey key = WorkflowDataKey.parse((String) execution.getVariable("hazelcast_key"));
             
-            Object value = map.get(key);
+            // An entry written earlier in this transaction never reaches Hazelcast
+            Object value = transactionalWriteBuffer.isActive() ? transactionalWriteBuffer.take(map.getName(), key) : null;
+            if (value == null) {
+                value = hazelcastProperties.getMap().isConsumeOnRead()
+                    ? consume(map, key)
+                    : getThenDelete(map, key);
+                // Chunked payloads are reassembled from their chunks, which are then deleted
+                value = chunkedPayloadStore.load(value, true);
+            }
             
             if (value != null) {
                 logger.info("Retrieved data from Hazelcast: key={}, value={}", key, value);
                 // Store retrieved value as process variable for use by subsequent tasks
-                execution.setVariable("retrieved_data", value);
-                // 使用 deleteAsync 並處理非同步結果
-                map.deleteAsync(key).thenAccept(deleted -> {
-                    if (deleted) {
-                        logger.info("Successfully deleted key: {}", key);
-                    } else {
-                        logger.warn("Failed to delete key: {}", key);
-                    }
-                }).exceptionally(throwable -> {
-                    logger.error("Error deleting key: {}", key, throwable);
-                    return null;
-                });
+                execution.setVariable("retrieved_data", payloadCodecRegistry.toVariableValue(value));
             } else {
                 logger.warn("No data found in Hazelcast for key: {}", key);
                 execution.setVariable("retrieved_data", null);
@@ -56,4 +78,42 @@ public class getServiceDelegate implements JavaDelegate {
             throw new BpmnError("HAZELCAST_GET_ERROR", "Failed to retrieve data from Hazelcast: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Reads and removes the entry in a single partition operation, so a retried
+     * job can never observe the same payload twice.
+     */
+    private Object consume(IMap<WorkflowDataKey, Object> map, WorkflowDataKey key) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return map.remove(key);
+        } finally {
+            sample.stop(meterRegistry.timer(READ_TIMER, "map", map.getName(), "mode", "consume"));
+        }
+    }
+    
+    private Object getThenDelete(IMap<WorkflowDataKey, Object> map, WorkflowDataKey key) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object value;
+        try {
+            value = map.get(key);
+        } finally {
+            sample.stop(meterRegistry.timer(READ_TIMER, "map", map.getName(), "mode", "get-delete"));
+        }
+        
+        if (value != null) {
+            // 使用 deleteAsync 並處理非同步結果
+            map.deleteAsync(key).thenAccept(deleted -> {
+                if (deleted) {
+                    logger.info("Successfully deleted key: {}", key);
+                } else {
+                    logger.warn("Failed to delete key: {}", key);
+                }
+            }).exceptionally(throwable -> {
+                logger.error("Error deleting key: {}", key, throwable);
+                return null;
+            });
+        }
+        return value;
+    }
+}
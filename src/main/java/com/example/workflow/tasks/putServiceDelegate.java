@@ -7,6 +7,8 @@ import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.BpmnError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.workflow.engine.TransactionalWriteBuffer;
+import com.example.workflow.serialization.PayloadCodecRegistry;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 
@@ -18,17 +20,29 @@ public class putServiceDelegate implements JavaDelegate {
     @Autowired
     private HazelcastInstance hazelcastInstance;
     
+    @Autowired
+    private WorkflowMapRouter workflowMapRouter;
+    
+    @Autowired
+    private TransactionalWriteBuffer transactionalWriteBuffer;
+    
+    @Autowired
+    private WorkflowMapWriter workflowMapWriter;
+    
+    @Autowired
+    private PayloadCodecRegistry payloadCodecRegistry;
+    
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String activityId = execution.getCurrentActivityId();
         
         try {
             // Store workflow data in Hazelcast
-            IMap<String, Object> map = hazelcastInstance.getMap("myMap");
+            IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap(workflowMapRouter.mapFor(execution));
             
-            // Use process instance ID as key for data isolation
+            // Use process instance ID as key for data isolation; it also selects the partition
             String processInstanceId = execution.getProcessInstanceId();
-            String key = processInstanceId + "_" + activityId;
+            WorkflowDataKey key = new WorkflowDataKey(processInstanceId, activityId);
             
             // Store some sample data - in real scenarios this would come from process variables
             Object value = execution.getVariable("data");
@@ -36,11 +50,21 @@ public class putServiceDelegate implements JavaDelegate {
                 value = "default_value_from_" + activityId;
             }
             
-            map.put(key, value);
-            logger.info("Stored data in Hazelcast: key={}, value={}", key, value);
+            // Fails fast when the payload would need Java serialization and the fallback is disabled
+            payloadCodecRegistry.resolve(value);
+            
+            if (transactionalWriteBuffer.isActive()) {
+                // Written while the engine transaction commits, or never if consumed before that
+                transactionalWriteBuffer.put(map.getName(), key, value);
+                logger.info("Buffered data for Hazelcast until commit: key={}, value={}", key, value);
+            } else {
+                workflowMapWriter.write(map.getName(), key, value);
+                logger.info("Stored data in Hazelcast: key={}, value={}", key, value);
+            }
             
             // Set the key as process variable for retrieval by other tasks
-            execution.setVariable("hazelcast_key", key);
+            execution.setVariable("hazelcast_key", key.toString());
+            execution.setVariable(WorkflowMapRouter.MAP_VARIABLE, map.getName());
             
         } catch (Exception e) {
             logger.error("Error storing data in Hazelcast", e);
@@ -0,0 +1,123 @@
+package com.example.workflow.benchmark;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.example.workflow.tasks.BatchingMapWriter;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per-call IMap.put, as done by putServiceDelegate, with the micro-batched
+ * writer against a local 3-member cluster. 64 threads stand in for the job executor.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.workflow.benchmark.HandoffWriteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(64)
+@Fork(1)
+public class HandoffWriteBenchmark {
+
+    private static final String MAP_NAME = "myMap";
+
+    @Param({"100", "500"})
+    private long maxDelayMicros;
+
+    private final List<HazelcastInstance> members = new ArrayList<>();
+
+    private IMap<String, Object> map;
+
+    private BatchingMapWriter writer;
+
+    private String payload;
+
+    @Setup(Level.Trial)
+    public void startCluster() {
+        String clusterName = "handoff-bench-" + UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            members.add(Hazelcast.newHazelcastInstance(memberConfig(clusterName)));
+        }
+        HazelcastInstance local = members.get(0);
+        map = local.getMap(MAP_NAME);
+        payload = "x".repeat(512);
+
+        HazelcastProperties properties = new HazelcastProperties();
+        properties.getMap().getBatching().setEnabled(true);
+        properties.getMap().getBatching().setMaxDelayMicros(maxDelayMicros);
+
+        writer = new BatchingMapWriter();
+        ReflectionTestUtils.setField(writer, "hazelcastInstance", local);
+        ReflectionTestUtils.setField(writer, "hazelcastProperties", properties);
+        ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+        writer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopCluster() throws InterruptedException {
+        writer.stop();
+        members.forEach(HazelcastInstance::shutdown);
+        members.clear();
+    }
+
+    @Benchmark
+    public void perCallPut() {
+        map.put(nextKey(), payload);
+    }
+
+    @Benchmark
+    public void batchedPut() throws Exception {
+        writer.put(MAP_NAME, nextKey(), payload);
+    }
+
+    private static String nextKey() {
+        return ThreadLocalRandom.current().nextLong() + "_rest-api";
+    }
+
+    private static Config memberConfig(String clusterName) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getMapConfig(MAP_NAME).setBackupCount(1);
+        return config;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(HandoffWriteBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.workflow.benchmark;
+
+import java.io.Serializable;
+
+/**
+ * Representative DTO payload handed between workflow activities.
+ */
+public class OrderPayload implements Serializable {
+
+    private String orderId;
+    private String customerId;
+    private double amount;
+    private int quantity;
+    private boolean express;
+    private String[] tags;
+
+    public OrderPayload() {
+    }
+
+    public OrderPayload(String orderId, String customerId, double amount, int quantity, boolean express, String[] tags) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.amount = amount;
+        this.quantity = quantity;
+        this.express = express;
+        this.tags = tags;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public boolean isExpress() {
+        return express;
+    }
+
+    public String[] getTags() {
+        return tags;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.workflow.benchmark;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.example.workflow.serialization.PayloadCodecRegistry;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Java serialization with Compact serialization, registered through
+ * PayloadCodecRegistry, for a typical DTO payload. Reports ns/op for each direction and
+ * prints the serialized size per codec.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.workflow.benchmark.PayloadSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PayloadSerializationBenchmark {
+
+    @Param({"java", "compact"})
+    private String codec;
+
+    private HazelcastInstance member;
+
+    private SerializationService serializationService;
+
+    private OrderPayload payload;
+
+    private Data serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HazelcastProperties properties = new HazelcastProperties();
+        if ("compact".equals(codec)) {
+            properties.getSerialization().setCompactClasses(List.of(OrderPayload.class.getName()));
+        }
+        PayloadCodecRegistry registry = new PayloadCodecRegistry();
+        ReflectionTestUtils.setField(registry, "hazelcastProperties", properties);
+        ReflectionTestUtils.setField(registry, "meterRegistry", new SimpleMeterRegistry());
+
+        Config config = new Config();
+        config.setClusterName("payload-bench-" + UUID.randomUUID());
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        registry.applyTo(config.getSerializationConfig());
+        member = Hazelcast.newHazelcastInstance(config);
+
+        serializationService = ((SerializationServiceSupport) member).getSerializationService();
+        payload = new OrderPayload(UUID.randomUUID().toString(), "customer-4711", 1299.95, 3, true,
+            new String[] {"priority", "eu-west", "gift"});
+        serialized = serializationService.toData(payload);
+
+        System.out.printf("%n[%s] serialized payload size: %d bytes (codec resolved as %s)%n",
+            codec, serialized.totalSize(), registry.resolve(payload));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        member.shutdown();
+    }
+
+    @Benchmark
+    public Data serialize() {
+        return serializationService.toData(payload);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializationService.toObject(serialized);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PayloadSerializationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.workflow.benchmark;
+
+import com.example.workflow.serialization.WorkflowDataKeySerializer;
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.partition.MigrationListener;
+import com.hazelcast.partition.MigrationState;
+import com.hazelcast.partition.ReplicaMigrationEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Rolling restart of three engine nodes next to three data members, once with the engine
+ * nodes as full members and once as lite members. Reports the time the cluster spent
+ * migrating partitions and the handoff throughput before and during the restart.
+ *
+ * A rolling restart is a one-off event rather than a steady-state operation, so this is a
+ * plain harness instead of a JMH benchmark.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.workflow.benchmark.RollingRestartBenchmark
+ */
+public class RollingRestartBenchmark {
+    
+    private static final String MAP_NAME = "myMap";
+    private static final int DATA_MEMBERS = 3;
+    private static final int ENGINE_NODES = 3;
+    private static final int WRITER_THREADS = 16;
+    private static final long BASELINE_MILLIS = 10_000;
+    
+    public static void main(String[] args) throws Exception {
+        for (boolean liteMembers : new boolean[] {false, true}) {
+            run(liteMembers);
+        }
+    }
+    
+    private static void run(boolean liteMembers) throws Exception {
+        String clusterName = "restart-bench-" + UUID.randomUUID();
+        List<HazelcastInstance> dataMembers = new ArrayList<>();
+        for (int i = 0; i < DATA_MEMBERS; i++) {
+            dataMembers.add(Hazelcast.newHazelcastInstance(memberConfig(clusterName, false)));
+        }
+        
+        MigrationTimer migrations = new MigrationTimer();
+        dataMembers.get(0).getPartitionService().addMigrationListener(migrations);
+        
+        AtomicReferenceArray<HazelcastInstance> engineNodes = new AtomicReferenceArray<>(ENGINE_NODES);
+        for (int i = 0; i < ENGINE_NODES; i++) {
+            engineNodes.set(i, Hazelcast.newHazelcastInstance(memberConfig(clusterName, liteMembers)));
+        }
+        awaitMigrations(dataMembers.get(0));
+        migrations.reset();
+        
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong handoffs = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < WRITER_THREADS; i++) {
+            Thread writer = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    HazelcastInstance node = engineNodes.get(random.nextInt(ENGINE_NODES));
+                    try {
+                        WorkflowDataKey key = new WorkflowDataKey(Long.toString(random.nextLong()), "rest-api");
+                        node.getMap(MAP_NAME).set(key, "payload");
+                        node.getMap(MAP_NAME).remove(key);
+                        handoffs.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // The node is shutting down; the engine would retry the job elsewhere
+                        failures.incrementAndGet();
+                    }
+                }
+            }, "handoff-writer-" + i);
+            writer.start();
+            writers.add(writer);
+        }
+        
+        Thread.sleep(BASELINE_MILLIS);
+        long baselineHandoffs = handoffs.getAndSet(0);
+        
+        long restartStart = System.nanoTime();
+        for (int i = 0; i < ENGINE_NODES; i++) {
+            engineNodes.get(i).shutdown();
+            awaitMigrations(dataMembers.get(0));
+            engineNodes.set(i, Hazelcast.newHazelcastInstance(memberConfig(clusterName, liteMembers)));
+            awaitMigrations(dataMembers.get(0));
+        }
+        long restartMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - restartStart);
+        long restartHandoffs = handoffs.get();
+        
+        running.set(false);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        
+        System.out.printf("%s engine nodes: restart took %d ms, %d migrations took %d ms, "
+                + "throughput %.0f/s before and %.0f/s during restart, %d failed handoffs%n",
+            liteMembers ? "lite-member" : "embedded", restartMillis,
+            migrations.completed(), migrations.elapsedMillis(),
+            baselineHandoffs * 1000.0 / BASELINE_MILLIS, restartHandoffs * 1000.0 / restartMillis,
+            failures.get());
+        
+        for (int i = 0; i < ENGINE_NODES; i++) {
+            engineNodes.get(i).shutdown();
+        }
+        dataMembers.forEach(HazelcastInstance::shutdown);
+    }
+    
+    private static void awaitMigrations(HazelcastInstance member) throws InterruptedException {
+        while (!member.getPartitionService().isClusterSafe()) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private static Config memberConfig(String clusterName, boolean liteMember) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.setLiteMember(liteMember);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getMapConfig(MAP_NAME).setBackupCount(1);
+        config.getSerializationConfig().getCompactSerializationConfig()
+            .addSerializer(new WorkflowDataKeySerializer());
+        return config;
+    }
+    
+    /**
+     * Sums the elapsed time of every migration process the cluster ran.
+     */
+    private static final class MigrationTimer implements MigrationListener {
+        
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong elapsedMillis = new AtomicLong();
+        
+        @Override
+        public void migrationStarted(MigrationState state) {
+        }
+        
+        @Override
+        public void migrationFinished(MigrationState state) {
+            completed.addAndGet(state.getCompletedMigrations());
+            elapsedMillis.addAndGet(state.getTotalElapsedTime());
+        }
+        
+        @Override
+        public void replicaMigrationCompleted(ReplicaMigrationEvent event) {
+        }
+        
+        @Override
+        public void replicaMigrationFailed(ReplicaMigrationEvent event) {
+        }
+        
+        void reset() {
+            completed.set(0);
+            elapsedMillis.set(0);
+        }
+        
+        long completed() {
+            return completed.get();
+        }
+        
+        long elapsedMillis() {
+            return elapsedMillis.get();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.workflow.benchmark;
+
+import com.example.workflow.serialization.SessionSerializers;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import org.camunda.bpm.webapp.impl.security.auth.Authentications;
+import org.camunda.bpm.webapp.impl.security.auth.UserAuthentication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.session.MapSession;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Java serialization of a Camunda webapp session with the serializers registered
+ * through SessionSerializers. The session holds a login for two engines and the CSRF token,
+ * as the webapp leaves it. Reports ns/op for each direction and for a session save into a
+ * map with one backup, and prints the serialized size per codec.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.workflow.benchmark.SessionSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SessionSerializationBenchmark {
+
+    @Param({"java", "custom"})
+    private String codec;
+
+    private HazelcastInstance member;
+
+    private HazelcastInstance backup;
+
+    private SerializationService serializationService;
+
+    private IMap<String, MapSession> sessions;
+
+    private MapSession session;
+
+    private Data serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String clusterName = "session-serialization-bench-" + UUID.randomUUID();
+        member = Hazelcast.newHazelcastInstance(memberConfig(clusterName));
+        backup = Hazelcast.newHazelcastInstance(memberConfig(clusterName));
+
+        serializationService = ((SerializationServiceSupport) member).getSerializationService();
+        sessions = member.getMap("spring-session-sessions");
+        session = camundaSession();
+        serialized = serializationService.toData(session);
+
+        System.out.printf("%n[%s] serialized session size: %d bytes%n", codec, serialized.totalSize());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backup.shutdown();
+        member.shutdown();
+    }
+
+    @Benchmark
+    public Data serialize() {
+        return serializationService.toData(session);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializationService.toObject(serialized);
+    }
+
+    @Benchmark
+    public void save() {
+        // Serialized on the caller, stored on the owner and copied to the backup
+        sessions.set(session.getId(), session);
+    }
+
+    private Config memberConfig(String clusterName) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getMapConfig("spring-session-sessions").setBackupCount(1);
+        if ("custom".equals(codec)) {
+            SessionSerializers.applyTo(config.getSerializationConfig());
+        }
+        return config;
+    }
+
+    private static MapSession camundaSession() {
+        Authentications authentications = new Authentications();
+        for (String engine : List.of("default", "reporting")) {
+            UserAuthentication login = new UserAuthentication("demo", engine);
+            login.setGroupIds(List.of("camunda-admin", "accounting", "management"));
+            login.setTenantIds(List.of("tenant-eu"));
+            login.setAuthorizedApps(Set.of("cockpit", "tasklist", "admin", "welcome"));
+            login.setCacheValidationTime(new Date());
+            authentications.addOrReplace(login);
+        }
+
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(Duration.ofMinutes(30));
+        session.setAttribute("authenticatedUser", authentications);
+        session.setAttribute("CAMUNDA_CSRF_TOKEN", UUID.randomUUID().toString());
+        return session;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SessionSerializationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.workflow.benchmark;
+
+import com.example.workflow.config.SessionAccessTimeCoalescer;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.hazelcast.HazelcastIndexedSessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays webapp traffic against the session repository on a 2-member cluster, once as
+ * configured by default and once with access-time coalescing, and reports how many session
+ * writes reached the cluster. Each simulated user sends a request every 10 seconds of
+ * simulated time for 10 minutes, and every 20th request changes an attribute.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.workflow.benchmark.SessionWriteRateBenchmark
+ */
+public class SessionWriteRateBenchmark {
+    
+    private static final String MAP_NAME = "spring-session-sessions";
+    private static final int USERS = 500;
+    private static final int REQUESTS_PER_USER = 60;
+    private static final Duration REQUEST_INTERVAL = Duration.ofSeconds(10);
+    private static final double WRITE_FRACTION = 0.1;
+    
+    public static void main(String[] args) throws Exception {
+        for (boolean coalescing : new boolean[] {false, true}) {
+            run(coalescing);
+        }
+    }
+    
+    private static void run(boolean coalescing) throws Exception {
+        String clusterName = "session-bench-" + UUID.randomUUID();
+        HazelcastInstance member = Hazelcast.newHazelcastInstance(memberConfig(clusterName));
+        HazelcastInstance other = Hazelcast.newHazelcastInstance(memberConfig(clusterName));
+        try {
+            HazelcastIndexedSessionRepository target = new HazelcastIndexedSessionRepository(member);
+            target.setSessionMapName(MAP_NAME);
+            target.afterPropertiesSet();
+            SessionRepository<Session> repository = coalescing ? coalesced(target) : uncheckedCast(target);
+            
+            AtomicLong writes = new AtomicLong();
+            member.getMap(MAP_NAME).addEntryListener((EntryUpdatedListener<Object, Object>) event -> writes.incrementAndGet(), false);
+            
+            List<String> sessionIds = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                Session session = repository.createSession();
+                session.setMaxInactiveInterval(Duration.ofMinutes(30));
+                repository.save(session);
+                sessionIds.add(session.getId());
+            }
+            
+            Instant now = Instant.now();
+            long start = System.nanoTime();
+            for (int request = 1; request <= REQUESTS_PER_USER; request++) {
+                Instant accessed = now.plus(REQUEST_INTERVAL.multipliedBy(request));
+                for (String sessionId : sessionIds) {
+                    // What SessionRepositoryFilter does around every request
+                    Session session = repository.findById(sessionId);
+                    session.setLastAccessedTime(accessed);
+                    if (request % 20 == 0) {
+                        session.setAttribute("lastPage", "page-" + request);
+                    }
+                    repository.save(session);
+                }
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            
+            // Update events arrive asynchronously
+            Thread.sleep(2000);
+            long requests = (long) USERS * REQUESTS_PER_USER;
+            System.out.printf("%-12s %7d requests   %7d session writes (%.1f%%)   %6.0f requests/s%n",
+                coalescing ? "coalescing" : "default", requests, writes.get(), writes.get() * 100.0 / requests,
+                requests * 1000.0 / Math.max(1, elapsedMillis));
+        } finally {
+            other.shutdown();
+            member.shutdown();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static SessionRepository<Session> coalesced(HazelcastIndexedSessionRepository target) {
+        // Same proxy as SessionConfig builds
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new SessionAccessTimeCoalescer(WRITE_FRACTION, new SimpleMeterRegistry()));
+        return (SessionRepository<Session>) proxyFactory.getProxy();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static SessionRepository<Session> uncheckedCast(HazelcastIndexedSessionRepository repository) {
+        return (SessionRepository<Session>) (SessionRepository<?>) repository;
+    }
+    
+    private static Config memberConfig(String clusterName) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getMapConfig(MAP_NAME).setBackupCount(1);
+        return config;
+    }
+}
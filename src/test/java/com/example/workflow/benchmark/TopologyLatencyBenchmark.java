@@ -0,0 +1,125 @@
+package com.example.workflow.benchmark;
+
+import com.example.workflow.serialization.WorkflowDataKeySerializer;
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.impl.connection.tcp.RoutingMode;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares handoff latency percentiles of a Camunda node that is an embedded member with one
+ * that is a smart-routing client of a 3-member data tier. The handoff is the put followed by
+ * the consuming remove done by putServiceDelegate and getServiceDelegate.
+ *
+ * The data members run inside the forked benchmark JVM and talk over loopback, so this
+ * measures the extra hop of client mode, not the isolation from the node's own GC pauses.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.workflow.benchmark.TopologyLatencyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(16)
+@Fork(1)
+public class TopologyLatencyBenchmark {
+    
+    private static final String MAP_NAME = "myMap";
+    
+    @Param({"embedded", "client"})
+    private String mode;
+    
+    private final List<HazelcastInstance> dataMembers = new ArrayList<>();
+    
+    private HazelcastInstance node;
+    
+    private IMap<WorkflowDataKey, Object> map;
+    
+    private String payload;
+    
+    @Setup(Level.Trial)
+    public void startCluster() {
+        String clusterName = "topology-bench-" + UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            dataMembers.add(Hazelcast.newHazelcastInstance(memberConfig(clusterName)));
+        }
+        
+        if ("client".equals(mode)) {
+            ClientConfig clientConfig = new ClientConfig();
+            clientConfig.setClusterName(clusterName);
+            clientConfig.getNetworkConfig().addAddress("127.0.0.1:5701")
+                .getClusterRoutingConfig().setRoutingMode(RoutingMode.ALL_MEMBERS);
+            clientConfig.getSerializationConfig().getCompactSerializationConfig()
+                .addSerializer(new WorkflowDataKeySerializer());
+            node = HazelcastClient.newHazelcastClient(clientConfig);
+        } else {
+            // The Camunda node joins as a fourth member and owns a share of the partitions
+            node = Hazelcast.newHazelcastInstance(memberConfig(clusterName));
+        }
+        map = node.getMap(MAP_NAME);
+        payload = "x".repeat(512);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopCluster() {
+        node.shutdown();
+        dataMembers.forEach(HazelcastInstance::shutdown);
+        dataMembers.clear();
+    }
+    
+    @Benchmark
+    public Object handoff() {
+        WorkflowDataKey key = new WorkflowDataKey(Long.toString(ThreadLocalRandom.current().nextLong()), "rest-api");
+        map.set(key, payload);
+        return map.remove(key);
+    }
+    
+    private static Config memberConfig(String clusterName) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getMapConfig(MAP_NAME).setBackupCount(1);
+        config.getSerializationConfig().getCompactSerializationConfig()
+            .addSerializer(new WorkflowDataKeySerializer());
+        return config;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TopologyLatencyBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
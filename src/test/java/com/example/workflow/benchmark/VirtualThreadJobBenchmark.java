@@ -0,0 +1,144 @@
+package com.example.workflow.benchmark;
+
+import com.example.workflow.config.VirtualThreadConfiguration;
+import com.example.workflow.serialization.WorkflowDataKeySerializer;
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated job executor load: each job does a Hazelcast handoff against a remote member and
+ * then waits 5 ms as a stand-in for its JDBC round trips, the profile of putServiceDelegate
+ * and getServiceDelegate. Compares Camunda's default pool of 10 platform threads, a pool of
+ * 200 platform threads and 200 concurrent virtual threads, and reports throughput along with
+ * the peak number of platform threads and virtual-thread carriers.
+ *
+ * A final run holds a monitor around the JDBC wait, as synchronized engine or driver code
+ * would, to show how pinning caps virtual threads at the carrier count.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.workflow.benchmark.VirtualThreadJobBenchmark
+ */
+public class VirtualThreadJobBenchmark {
+    
+    private static final String MAP_NAME = "myMap";
+    private static final int QUEUE_CAPACITY = 3;
+    private static final long JDBC_MILLIS = 5;
+    private static final long MEASURE_MILLIS = 15_000;
+    
+    public static void main(String[] args) throws Exception {
+        String clusterName = "vthread-bench-" + UUID.randomUUID();
+        HazelcastInstance dataMember = Hazelcast.newHazelcastInstance(memberConfig(clusterName, false));
+        HazelcastInstance engineNode = Hazelcast.newHazelcastInstance(memberConfig(clusterName, true));
+        try {
+            IMap<WorkflowDataKey, Object> map = engineNode.getMap(MAP_NAME);
+            run("platform x10", platformExecutor(10), map, false);
+            run("platform x200", platformExecutor(200), map, false);
+            run("virtual x200", virtualExecutor(200), map, false);
+            run("virtual x200 pinned", virtualExecutor(200), map, true);
+        } finally {
+            engineNode.shutdown();
+            dataMember.shutdown();
+        }
+    }
+    
+    private static void run(String name, ThreadPoolTaskExecutor executor, IMap<WorkflowDataKey, Object> map,
+                            boolean pinned) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        AtomicLong jobs = new AtomicLong();
+        Object monitor = new Object();
+        int peakCarriers = 0;
+        
+        long end = System.currentTimeMillis() + MEASURE_MILLIS;
+        while (System.currentTimeMillis() < end) {
+            try {
+                executor.execute(() -> {
+                    handoff(map);
+                    if (pinned) {
+                        synchronized (monitor) {
+                            sleep(JDBC_MILLIS);
+                        }
+                    } else {
+                        sleep(JDBC_MILLIS);
+                    }
+                    jobs.incrementAndGet();
+                });
+            } catch (RejectedExecutionException e) {
+                // Saturated; job acquisition would back off before trying again
+                peakCarriers = Math.max(peakCarriers, carrierThreads());
+                Thread.sleep(1);
+            }
+        }
+        executor.shutdown();
+        
+        System.out.printf("%-20s %8.0f jobs/s   peak platform threads %4d   peak carriers %3d%n",
+            name, jobs.get() * 1000.0 / MEASURE_MILLIS, threads.getPeakThreadCount(), peakCarriers);
+    }
+    
+    private static void handoff(IMap<WorkflowDataKey, Object> map) {
+        WorkflowDataKey key = new WorkflowDataKey(Long.toString(ThreadLocalRandom.current().nextLong()), "rest-api");
+        map.set(key, "payload");
+        map.remove(key);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Carriers are the platform threads of the virtual-thread scheduler's ForkJoinPool.
+     */
+    private static int carrierThreads() {
+        int carriers = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("ForkJoinPool-") && thread.getName().contains("-worker-")) {
+                carriers++;
+            }
+        }
+        return carriers;
+    }
+    
+    private static ThreadPoolTaskExecutor platformExecutor(int threads) {
+        // Mirrors the starter's default camundaTaskExecutor
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(QUEUE_CAPACITY);
+        executor.initialize();
+        return executor;
+    }
+    
+    private static ThreadPoolTaskExecutor virtualExecutor(int maxConcurrency) {
+        ThreadPoolTaskExecutor executor = VirtualThreadConfiguration.jobExecutor(maxConcurrency, QUEUE_CAPACITY);
+        executor.initialize();
+        return executor;
+    }
+    
+    private static Config memberConfig(String clusterName, boolean liteMember) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.setLiteMember(liteMember);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getSerializationConfig().getCompactSerializationConfig().addSerializer(new WorkflowDataKeySerializer());
+        return config;
+    }
+}
@@ -32,6 +32,13 @@ public class HazelcastPropertiesTest {
                   "Cookie secure should be true by default");
         assertTrue(sessionProps.isCookieHttpOnly(), 
                   "Cookie HTTP-only should be true by default");
+        
+        // The test profile enables it, so check the code default on a fresh instance
+        HazelcastProperties.Session defaults = new HazelcastProperties.Session();
+        assertFalse(defaults.getNearCache().isEnabled(),
+                   "Session near cache should be off by default, other nodes may serve stale sessions");
+        assertEquals(1, defaults.getNearCacheInvalidationSeconds(),
+                    "Near cache invalidations should be sent every second by default");
     }
 
     @Test
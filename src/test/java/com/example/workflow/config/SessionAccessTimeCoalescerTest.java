@@ -0,0 +1,83 @@
+package com.example.workflow.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionAccessTimeCoalescerTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    private SessionRepository<Session> repository;
+    
+    private String sessionId;
+    
+    private Instant created;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new MapSessionRepository(new ConcurrentHashMap<>()));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new SessionAccessTimeCoalescer(0.1, meterRegistry));
+        repository = (SessionRepository<Session>) proxyFactory.getProxy();
+        
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(Duration.ofMinutes(30));
+        created = session.getLastAccessedTime();
+        repository.save(session);
+        sessionId = session.getId();
+    }
+    
+    @Test
+    public void testAccessWithinFractionIsNotWritten() {
+        Session session = repository.findById(sessionId);
+        session.setLastAccessedTime(created.plus(Duration.ofMinutes(1)));
+        repository.save(session);
+        
+        assertEquals(created, repository.findById(sessionId).getLastAccessedTime(),
+            "An access within 10% of the interval should not be written");
+        assertEquals(1, saves("coalesced"), "The save should be counted as coalesced");
+    }
+    
+    @Test
+    public void testAccessBeyondFractionIsWritten() {
+        Session session = repository.findById(sessionId);
+        Instant accessed = created.plus(Duration.ofMinutes(4));
+        session.setLastAccessedTime(accessed);
+        repository.save(session);
+        
+        assertEquals(accessed, repository.findById(sessionId).getLastAccessedTime(),
+            "An access beyond 10% of the interval should be written");
+        assertEquals(1, saves("written"), "The save should be counted as written");
+    }
+    
+    @Test
+    public void testAttributeChangeIsWrittenWithAccessTime() {
+        Session session = repository.findById(sessionId);
+        Instant accessed = created.plus(Duration.ofSeconds(5));
+        session.setLastAccessedTime(accessed);
+        session.setAttribute("userId", "demo");
+        repository.save(session);
+        
+        Session stored = repository.findById(sessionId);
+        assertEquals("demo", stored.getAttribute("userId"), "Attribute changes should always be written");
+        assertEquals(accessed, stored.getLastAccessedTime(), "The pending access time should be written along");
+    }
+    
+    private double saves(String outcome) {
+        return meterRegistry.get("workflow.hazelcast.session.saves").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.workflow.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "hazelcast.session.affinity=true"
+})
+public class SessionAffinityEndpointTest {
+
+    @Autowired
+    private SessionAffinityEndpoint sessionAffinityEndpoint;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Test
+    public void testProxyHashMatchesHazelcastPartitioning() {
+        int partitionCount = hazelcastInstance.getPartitionService().getPartitions().size();
+        for (int i = 0; i < 1000; i++) {
+            String sessionId = UUID.randomUUID().toString();
+            assertEquals(hazelcastInstance.getPartitionService().getPartition(sessionId).getPartitionId(),
+                        proxyPartitionId(sessionId, partitionCount),
+                        "webproxy/session_affinity.js should pick the partition Hazelcast uses for " + sessionId);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPartitionTableListsOwners() {
+        Map<String, Object> table = sessionAffinityEndpoint.partitionTable();
+
+        List<String> members = (List<String>) table.get("members");
+        assertEquals(1, members.size(), "The standalone test member should be listed");
+        assertTrue(members.get(0).matches(".+:\\d+"), "Members should be listed by their HTTP address");
+
+        int[] owners = (int[]) table.get("owners");
+        assertEquals(table.get("partitionCount"), owners.length, "Every partition should have an entry");
+        for (int owner : owners) {
+            assertEquals(0, owner, "The only member should own every partition");
+        }
+
+        Map<String, Object> session = sessionAffinityEndpoint.session(UUID.randomUUID().toString());
+        assertEquals(true, session.get("local"), "The local member should own every session");
+    }
+
+    /**
+     * Same computation as partitionId() in webproxy/session_affinity.js.
+     */
+    private static int proxyPartitionId(String sessionId, int partitionCount) {
+        byte[] utf8 = sessionId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer data = ByteBuffer.allocate(4 + utf8.length).putInt(utf8.length).put(utf8);
+        int hash = murmur3(data.order(ByteOrder.LITTLE_ENDIAN), 0x01000193);
+        return hash == Integer.MIN_VALUE ? 0 : Math.abs(hash) % partitionCount;
+    }
+
+    private static int murmur3(ByteBuffer data, int seed) {
+        int length = data.capacity();
+        int blocks = length & ~3;
+        int h1 = seed;
+        for (int i = 0; i < blocks; i += 4) {
+            int k1 = data.getInt(i) * 0xcc9e2d51;
+            k1 = Integer.rotateLeft(k1, 15) * 0x1b873593;
+            h1 ^= k1;
+            h1 = Integer.rotateLeft(h1, 13) * 5 + 0xe6546b64;
+        }
+        int k1 = 0;
+        switch (length & 3) {
+            case 3:
+                k1 ^= (data.get(blocks + 2) & 0xff) << 16;
+            case 2:
+                k1 ^= (data.get(blocks + 1) & 0xff) << 8;
+            case 1:
+                k1 ^= data.get(blocks) & 0xff;
+                h1 ^= Integer.rotateLeft(k1 * 0xcc9e2d51, 15) * 0x1b873593;
+        }
+        h1 ^= length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+}
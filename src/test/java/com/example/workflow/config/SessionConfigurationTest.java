@@ -1,5 +1,6 @@
 package com.example.workflow.config;
 
+import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 import org.junit.jupiter.api.Test;
@@ -44,6 +45,14 @@ public class SessionConfigurationTest {
                     "Session map name should match configuration");
     }
 
+    @Test
+    public void testPrincipalNameIndexIsOffByDefault() {
+        MapConfig sessionMapConfig = hazelcastInstance.getConfig().getMapConfig("spring-session-sessions");
+        assertTrue(sessionMapConfig.getAttributeConfigs().isEmpty(),
+                  "No attribute extractor should run on session writes unless the index is enabled");
+        assertTrue(sessionMapConfig.getIndexConfigs().isEmpty(), "Session map should have no index by default");
+    }
+
     @Test
     public void testSessionConfigurationIsActive() {
         // Verify that SessionConfig bean is active
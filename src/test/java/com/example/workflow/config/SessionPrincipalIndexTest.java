@@ -0,0 +1,57 @@
+package com.example.workflow.config;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.hazelcast.HazelcastIndexedSessionRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "hazelcast.session.principal-name-index=true"
+})
+public class SessionPrincipalIndexTest {
+
+    @Autowired
+    private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Test
+    public void testPrincipalNameIsIndexed() {
+        MapConfig sessionMapConfig = hazelcastInstance.getConfig().getMapConfig("spring-session-sessions");
+        assertTrue(sessionMapConfig.getAttributeConfigs().stream()
+                .anyMatch(attribute -> HazelcastIndexedSessionRepository.PRINCIPAL_NAME_ATTRIBUTE.equals(attribute.getName())),
+                  "Principal name extractor should be registered");
+        assertTrue(sessionMapConfig.getIndexConfigs().stream()
+                .anyMatch(index -> index.getType() == IndexType.HASH
+                    && index.getAttributes().contains(HazelcastIndexedSessionRepository.PRINCIPAL_NAME_ATTRIBUTE)),
+                  "Principal name should have a hash index");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSessionsCanBeFoundByPrincipalName() {
+        FindByIndexNameSessionRepository<Session> repository = (FindByIndexNameSessionRepository<Session>) sessionRepository;
+        Session session = repository.createSession();
+        session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "demo");
+        repository.save(session);
+
+        Map<String, Session> sessions = repository.findByPrincipalName("demo");
+        assertTrue(sessions.containsKey(session.getId()), "Session should be found by its principal name");
+
+        repository.deleteById(session.getId());
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.workflow.engine;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class HazelcastVariableSerializerTest {
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProcessEngineConfigurationImpl processEngineConfiguration;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    private String deploymentId;
+
+    @BeforeEach
+    public void deployWaitingProcess() {
+        deploymentId = repositoryService.createDeployment()
+            .addModelInstance("variable-wait.bpmn", Bpmn.createExecutableProcess("variableWait")
+                .startEvent()
+                .userTask("wait")
+                .endEvent()
+                .done())
+            .deploy()
+            .getId();
+    }
+
+    @AfterEach
+    public void undeployWaitingProcess() {
+        repositoryService.deleteDeployment(deploymentId, true);
+    }
+
+    @Test
+    public void testVariablePayloadIsStoredInHazelcast() {
+        ArrayList<String> document = new ArrayList<>(List.of("line-1", "line-2", "line-3"));
+
+        ProcessInstance instance = runtimeService.startProcessInstanceByKey("variableWait",
+            Variables.createVariables().putValueTyped("document", HazelcastVariables.objectValue(document)));
+
+        HistoricVariableInstance variable = historyService.createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("document")
+            .disableCustomObjectDeserialization()
+            .singleResult();
+        assertNotNull(variable, "Variable should be recorded");
+
+        // Without deserialization only the reference is read, no Hazelcast round trip
+        ObjectValue reference = (ObjectValue) variable.getTypedValue();
+        assertFalse(reference.isDeserialized(), "Serialized form should not fetch the payload");
+        assertEquals(HazelcastVariableSerializer.DATA_FORMAT, reference.getSerializationDataFormat(),
+                    "Variable should use the Hazelcast reference data format");
+
+        IMap<String, Object> variableMap = hazelcastInstance.getMap("camunda-variables");
+        assertEquals(document, variableMap.get(reference.getValueSerialized()),
+                    "Payload should be stored in the Hazelcast variable map under the reference");
+
+        HistoricVariableInstance fetched = historyService.createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("document")
+            .singleResult();
+        assertEquals(document, fetched.getValue(), "Payload should be fetched lazily from Hazelcast");
+    }
+
+    @Test
+    public void testRolledBackUpdateKeepsCommittedPayload() {
+        ProcessInstance instance = runtimeService.startProcessInstanceByKey("variableWait",
+            Variables.createVariables().putValueTyped("document", HazelcastVariables.objectValue("committed")));
+        String committed = reference(instance.getId());
+
+        assertThrows(ProcessEngineException.class, () ->
+            processEngineConfiguration.getCommandExecutorTxRequired().execute(commandContext -> {
+                runtimeService.setVariable(instance.getId(), "document", HazelcastVariables.objectValue("rolled-back"));
+                throw new ProcessEngineException("Simulated failure after the update");
+            }));
+
+        assertEquals(committed, reference(instance.getId()), "Rolled back update should keep the committed reference");
+        assertEquals("committed", runtimeService.getVariable(instance.getId(), "document"),
+                    "Committed payload should not be overwritten by the rolled back update");
+
+        runtimeService.setVariable(instance.getId(), "document", HazelcastVariables.objectValue("updated"));
+        assertNotEquals(committed, reference(instance.getId()), "Update should be stored under a new reference");
+        assertEquals("updated", runtimeService.getVariable(instance.getId(), "document"));
+    }
+
+    @Test
+    public void testPayloadsAreDeletedWhenProcessInstanceEnds() throws InterruptedException {
+        ProcessInstance instance = runtimeService.startProcessInstanceByKey("variableWait",
+            Variables.createVariables().putValueTyped("document", HazelcastVariables.objectValue("payload")));
+        String reference = reference(instance.getId());
+        IMap<String, Object> variableMap = hazelcastInstance.getMap("camunda-variables");
+        assertTrue(variableMap.containsKey(reference), "Payload should be stored while the instance runs");
+
+        taskService.complete(taskService.createTaskQuery().processInstanceId(instance.getId()).singleResult().getId());
+
+        awaitDeleted(reference, "Payload should be deleted when the instance ends");
+    }
+
+    @Test
+    public void testReplacedAndRemovedPayloadsAreDeleted() throws InterruptedException {
+        ProcessInstance instance = runtimeService.startProcessInstanceByKey("variableWait",
+            Variables.createVariables().putValueTyped("document", HazelcastVariables.objectValue("first")));
+        String first = reference(instance.getId());
+        String taskId = taskService.createTaskQuery().processInstanceId(instance.getId()).singleResult().getId();
+        taskService.setVariableLocal(taskId, "draft", HazelcastVariables.objectValue("task-local"));
+        String draft = ((ObjectValue) taskService.getVariableLocalTyped(taskId, "draft", false)).getValueSerialized();
+
+        runtimeService.setVariable(instance.getId(), "document", HazelcastVariables.objectValue("second"));
+        String second = reference(instance.getId());
+        awaitDeleted(first, "Payload replaced by an update should be deleted");
+        assertEquals("second", runtimeService.getVariable(instance.getId(), "document"),
+                    "The current payload should be kept");
+
+        runtimeService.setVariable(instance.getId(), "keep", "unrelated");
+        assertTrue(hazelcastInstance.getMap("camunda-variables").containsKey(second),
+                  "Unchanged variables should keep their payload");
+
+        taskService.removeVariableLocal(taskId, "draft");
+        awaitDeleted(draft, "Payload of a removed variable should be deleted");
+
+        taskService.setVariableLocal(taskId, "draft", HazelcastVariables.objectValue("task-local-again"));
+        String ended = ((ObjectValue) taskService.getVariableLocalTyped(taskId, "draft", false)).getValueSerialized();
+        taskService.complete(taskId);
+        awaitDeleted(ended, "Payload of a variable in an ended inner scope should be deleted");
+        awaitDeleted(second, "Payloads should be deleted when the instance ends");
+    }
+
+    @Test
+    public void testSerializedWritesMustReferenceAnExistingPayload() {
+        ProcessInstance instance = runtimeService.startProcessInstanceByKey("variableWait",
+            Variables.createVariables().putValueTyped("document", HazelcastVariables.objectValue("shared")));
+        String original = reference(instance.getId());
+
+        assertThrows(ProcessEngineException.class, () -> runtimeService.setVariable(instance.getId(), "forged",
+            serialized("not-a-reference")), "A value that is not a reference should be rejected");
+        assertThrows(ProcessEngineException.class, () -> runtimeService.setVariable(instance.getId(), "forged",
+            serialized(UUID.randomUUID().toString())), "A reference without a payload should be rejected");
+
+        runtimeService.setVariable(instance.getId(), "copy", serialized(original));
+        ObjectValue copy = runtimeService.getVariableTyped(instance.getId(), "copy", false);
+        assertNotEquals(original, copy.getValueSerialized(), "A copied reference should get its own payload");
+        assertEquals("shared", runtimeService.getVariable(instance.getId(), "copy"));
+    }
+
+    private static ObjectValue serialized(String reference) {
+        return Variables.serializedObjectValue(reference)
+            .serializationDataFormat(HazelcastVariableSerializer.DATA_FORMAT)
+            .objectTypeName(String.class.getName())
+            .create();
+    }
+
+    private void awaitDeleted(String reference, String message) throws InterruptedException {
+        IMap<String, Object> variableMap = hazelcastInstance.getMap("camunda-variables");
+        // Deleted asynchronously once the change has committed
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (variableMap.containsKey(reference) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertFalse(variableMap.containsKey(reference), message);
+    }
+
+    private String reference(String processInstanceId) {
+        ObjectValue value = runtimeService.getVariableTyped(processInstanceId, "document", false);
+        return value.getValueSerialized();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.workflow.integration;
+
+import com.example.workflow.tasks.ChunkManifest;
+import com.example.workflow.tasks.HandoffCompletionExecutor;
+import com.example.workflow.tasks.HandoffRecoveryJobHandler;
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Handoffs whose completion never arrives, simulated by a stopped completion executor, are
+ * finished by their recovery jobs. The test profile disables the job executor, so the jobs
+ * are run by hand.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class HandoffRecoveryIntegrationTest {
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private ManagementService managementService;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private HandoffCompletionExecutor handoffCompletionExecutor;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Test
+    public void testStuckHandoffsAreCompletedByRecoveryJobs() throws InterruptedException {
+        handoffCompletionExecutor.stop();
+
+        ProcessInstance instance = runtimeService.startProcessInstanceByKey("asyncprocess", Map.of("data", "recovered_value"));
+
+        // The put waits in its activity, only the recovery job can move it on
+        managementService.executeJob(recoveryJob(instance).getId());
+        assertEquals(1, runtimeService.createProcessInstanceQuery().processInstanceId(instance.getId()).count(),
+                    "Process should now wait in the async get");
+
+        managementService.executeJob(recoveryJob(instance).getId());
+        assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(instance.getId()).count(),
+                    "Process should have ended after both handoffs were recovered");
+
+        assertEquals("recovered_value", variable(instance, "retrieved_data"), "Recovered get should return the recovered put value");
+
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap((String) variable(instance, "hazelcast_map"));
+        WorkflowDataKey key = WorkflowDataKey.parse((String) variable(instance, "hazelcast_key"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (map.containsKey(key)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Entry should be deleted once the get has committed");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void testRecoveredPutDeletesChunksOfTheEarlierAttempt() throws InterruptedException {
+        handoffCompletionExecutor.stop();
+
+        // The first attempt still writes after commit, only its completion is never delivered
+        byte[] document = new byte[2 * 1024 * 1024];
+        ProcessInstance instance = runtimeService.startProcessInstanceByKey("asyncprocess", Map.of("data", document));
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap((String) runtimeService.getVariable(instance.getId(), "hazelcast_map"));
+        WorkflowDataKey key = WorkflowDataKey.parse((String) runtimeService.getVariable(instance.getId(), "hazelcast_key"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!(map.get(key) instanceof ChunkManifest)) {
+            assertTrue(System.currentTimeMillis() < deadline, "First attempt should store a chunk manifest");
+            Thread.sleep(50);
+        }
+        ChunkManifest first = (ChunkManifest) map.get(key);
+
+        managementService.executeJob(recoveryJob(instance).getId());
+
+        ChunkManifest second = (ChunkManifest) map.get(key);
+        assertNotEquals(first.getPayloadId(), second.getPayloadId(), "Recovery should store the payload again");
+        IMap<String, byte[]> chunks = hazelcastInstance.getMap(first.getChunkMapName());
+        while (chunks.containsKey(first.chunkKey(0))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Chunks of the replaced manifest should be deleted");
+            Thread.sleep(50);
+        }
+        assertTrue(chunks.containsKey(second.chunkKey(0)), "Chunks of the stored manifest should be kept");
+    }
+
+    private Job recoveryJob(ProcessInstance instance) {
+        Job job = managementService.createJobQuery().processInstanceId(instance.getId()).singleResult();
+        assertNotNull(job, "Waiting handoff should have a recovery job");
+        assertEquals(HandoffRecoveryJobHandler.TYPE, ((JobEntity) job).getJobHandlerType(),
+                    "Job should be the handoff recovery job");
+        return job;
+    }
+
+    private Object variable(ProcessInstance instance, String name) {
+        HistoricVariableInstance variable = historyService.createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName(name)
+            .singleResult();
+        assertNotNull(variable, name + " should be recorded");
+        return variable.getValue();
+    }
+}
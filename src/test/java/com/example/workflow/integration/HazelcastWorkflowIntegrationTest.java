@@ -1,13 +1,36 @@
 package com.example.workflow.integration;
 
+import com.example.workflow.config.HazelcastMapsEndpoint;
+import com.example.workflow.engine.ProcessEndCleanup;
+import com.example.workflow.engine.TransactionalWriteBuffer;
+import com.example.workflow.tasks.ChunkManifest;
+import com.example.workflow.tasks.ChunkedPayloadStore;
+import com.example.workflow.tasks.CompressedPayload;
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -20,6 +43,24 @@ public class HazelcastWorkflowIntegrationTest {
     @Autowired
     private HazelcastInstance hazelcastInstance;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ChunkedPayloadStore chunkedPayloadStore;
+    
+    @Autowired
+    private ProcessEndCleanup processEndCleanup;
+    
+    @Autowired
+    private TransactionalWriteBuffer transactionalWriteBuffer;
+    
+    @Autowired
+    private ProcessEngineConfigurationImpl processEngineConfiguration;
+    
+    @Autowired
+    private HazelcastMapsEndpoint hazelcastMapsEndpoint;
+    
     @Test
     public void testHazelcastInstanceIsInjected() {
         assertNotNull(hazelcastInstance, "HazelcastInstance should be injected");
@@ -93,4 +134,329 @@ public class HazelcastWorkflowIntegrationTest {
         map.remove(key);
         assertFalse(map.containsKey(key), "Key should be removed");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testGetDelegateConsumesEntryInSingleOperation() {
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap("myMap");
+        
+        // Entry written by an earlier transaction, read by the standalone get process
+        WorkflowDataKey key = new WorkflowDataKey("consume-test-instance", "rest-api");
+        map.put(key, "consume_test_value");
+        
+        ProcessInstance instance = processEngine.getRuntimeService()
+            .startProcessInstanceByKey("getprocess", Map.of("hazelcast_key", key.toString()));
+        
+        HistoricVariableInstance retrieved = processEngine.getHistoryService()
+            .createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("retrieved_data")
+            .singleResult();
+        assertNotNull(retrieved, "Retrieved data should be recorded as a process variable");
+        assertEquals("consume_test_value", retrieved.getValue(), "Consumed value should match stored value");
+        
+        assertFalse(map.containsKey(key), "Entry should be removed by the consume operation");
+        
+        Timer timer = meterRegistry.find("workflow.hazelcast.read").tag("mode", "consume").timer();
+        assertNotNull(timer, "Consume latency should be recorded");
+        assertTrue(timer.count() > 0, "Consume timer should have at least one sample");
+    }
+    
+    @Test
+    public void testEntryConsumedInSameTransactionIsNeverWritten() {
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap("myMap");
+        
+        // The bundled process runs putServiceDelegate followed by getServiceDelegate in one transaction
+        ProcessInstance instance = processEngine.getRuntimeService()
+            .startProcessInstanceByKey("process", Map.of("data", "buffered_test_value"));
+        
+        HistoricVariableInstance retrieved = processEngine.getHistoryService()
+            .createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("retrieved_data")
+            .singleResult();
+        assertNotNull(retrieved, "Retrieved data should be recorded as a process variable");
+        assertEquals("buffered_test_value", retrieved.getValue(), "Buffered value should be handed over");
+        
+        assertFalse(map.containsKey(new WorkflowDataKey(instance.getId(), "rest-api")),
+                   "Entry consumed before commit should never be written to Hazelcast");
+        assertNotNull(meterRegistry.find("workflow.hazelcast.buffer").tag("outcome", "consumed").counter(),
+                     "Consumed buffered entries should be counted");
+    }
+    
+    @Test
+    public void testBufferedWritesAreFlushedThroughTheTimedWriter() {
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap("myMap");
+        WorkflowDataKey key = new WorkflowDataKey("buffer-flush-instance", "rest-api");
+        Timer timer = meterRegistry.find("workflow.hazelcast.write").tag("map", "myMap").timer();
+        long writesBefore = timer != null ? timer.count() : 0;
+        
+        processEngineConfiguration.getCommandExecutorTxRequired().execute(commandContext -> {
+            transactionalWriteBuffer.put("myMap", key, "flushed_value");
+            assertFalse(map.containsKey(key), "Buffered entry should not be written before commit");
+            return null;
+        });
+        
+        assertEquals("flushed_value", map.get(key), "Buffered entry should be written when the transaction commits");
+        timer = meterRegistry.find("workflow.hazelcast.write").tag("map", "myMap").timer();
+        assertNotNull(timer, "Flushed entries should be timed like direct writes");
+        assertTrue(timer.count() > writesBefore, "The flush should record a write sample");
+        map.remove(key);
+    }
+    
+    @Test
+    public void testFailedFlushRollsBackTheTransaction() {
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap("myMap");
+        WorkflowDataKey key = new WorkflowDataKey("buffer-failure-instance", "rest-api");
+        
+        // Neither Compact nor Java serialization can write a plain Object
+        assertThrows(RuntimeException.class, () ->
+            processEngineConfiguration.getCommandExecutorTxRequired().execute(commandContext -> {
+                transactionalWriteBuffer.put("myMap", key, new Object());
+                return null;
+            }), "A failed flush should fail the engine transaction");
+        
+        assertFalse(map.containsKey(key), "Nothing should be written for the failed flush");
+        assertNotNull(meterRegistry.find("workflow.hazelcast.buffer").tag("outcome", "failed").counter(),
+                     "Failed flushes should be counted");
+    }
+    
+    @Test
+    public void testAsyncDelegatesCompleteWhenFuturesResolve() throws InterruptedException {
+        ProcessInstance instance = processEngine.getRuntimeService()
+            .startProcessInstanceByKey("asyncprocess", Map.of("data", "async_test_value"));
+        
+        // The activities are signalled from the completion executor, so wait for the process to end
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (processEngine.getRuntimeService().createProcessInstanceQuery()
+                .processInstanceId(instance.getId()).count() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Async process should complete within 10 seconds");
+            Thread.sleep(50);
+        }
+        
+        HistoricVariableInstance retrieved = processEngine.getHistoryService()
+            .createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("retrieved_data")
+            .singleResult();
+        assertNotNull(retrieved, "Retrieved data should be recorded as a process variable");
+        assertEquals("async_test_value", retrieved.getValue(), "Async get should return the async put value");
+    }
+    
+    @Test
+    public void testWorkflowDataKeyIsPartitionedByProcessInstance() {
+        WorkflowDataKey putKey = new WorkflowDataKey("process1", "rest-api");
+        WorkflowDataKey otherKey = new WorkflowDataKey("process1", "other_activity");
+        
+        // All entries of one process instance must map to the same partition
+        assertEquals(
+            hazelcastInstance.getPartitionService().getPartition(putKey).getPartitionId(),
+            hazelcastInstance.getPartitionService().getPartition(otherKey).getPartitionId(),
+            "Keys of the same process instance should share a partition");
+        
+        // The string form stored in hazelcast_key must round-trip, including '_' in activity ids
+        assertEquals(otherKey, WorkflowDataKey.parse(otherKey.toString()), "Key should round-trip through its string form");
+        
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap("myMap");
+        map.put(putKey, "partition_value");
+        assertEquals("partition_value", map.get(WorkflowDataKey.parse("process1_rest-api")),
+            "Compact-serialized key should be found by an equal key");
+        map.remove(putKey);
+    }
+    
+    @Test
+    public void testLargePayloadIsChunkedAndReassembled() throws Exception {
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap("myMap");
+        
+        // Above the default 1 MB threshold, so it is split into 256 KB chunks
+        byte[] document = new byte[2 * 1024 * 1024 + 17];
+        ThreadLocalRandom.current().nextBytes(document);
+        
+        Object stored = chunkedPayloadStore.store("myMap", document);
+        assertTrue(stored instanceof ChunkManifest, "Large payload should be replaced by a manifest");
+        ChunkManifest manifest = (ChunkManifest) stored;
+        assertEquals(9, manifest.getChunkCount(), "Payload should be split into bounded chunks");
+        
+        WorkflowDataKey key = new WorkflowDataKey("chunk-test-instance", "rest-api");
+        map.put(key, manifest);
+        
+        ProcessInstance instance = processEngine.getRuntimeService()
+            .startProcessInstanceByKey("getprocess", Map.of("hazelcast_key", key.toString()));
+        
+        HistoricVariableInstance retrieved = processEngine.getHistoryService()
+            .createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("retrieved_data")
+            .singleResult();
+        assertNotNull(retrieved, "Retrieved data should be recorded as a process variable");
+        assertArrayEquals(document, (byte[]) retrieved.getValue(), "Chunks should be reassembled in order");
+        
+        // Chunks are deleted asynchronously once the payload is consumed
+        IMap<String, byte[]> chunks = hazelcastInstance.getMap(manifest.getChunkMapName());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (chunks.containsKey(manifest.chunkKey(0))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Chunks should be deleted after consumption");
+            Thread.sleep(50);
+        }
+    }
+    
+    @Test
+    public void testCompressiblePayloadIsStoredDeflated() throws Exception {
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap("myMap");
+        
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            json.append("{\"orderId\":").append(i).append(",\"status\":\"PENDING\",\"currency\":\"EUR\"},");
+        }
+        byte[] document = json.append("{}]").toString().getBytes(StandardCharsets.UTF_8);
+        
+        Object stored = chunkedPayloadStore.store("myMap", document);
+        assertTrue(stored instanceof CompressedPayload, "Payload above the threshold should be compressed");
+        assertTrue(((CompressedPayload) stored).getData().length < document.length, "Compressed payload should be smaller");
+        
+        WorkflowDataKey key = new WorkflowDataKey("compression-test-instance", "rest-api");
+        map.put(key, stored);
+        
+        ProcessInstance instance = processEngine.getRuntimeService()
+            .startProcessInstanceByKey("getprocess", Map.of("hazelcast_key", key.toString()));
+        
+        HistoricVariableInstance retrieved = processEngine.getHistoryService()
+            .createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("retrieved_data")
+            .singleResult();
+        assertNotNull(retrieved, "Retrieved data should be recorded as a process variable");
+        assertArrayEquals(document, (byte[]) retrieved.getValue(), "Payload should be inflated on read");
+        assertTrue(meterRegistry.find("workflow.hazelcast.payload.compressed.bytes").tag("map", "myMap").summary() != null,
+            "Compressed bytes should be reported per map");
+    }
+    
+    @Test
+    public void testEntriesOfEndedProcessInstancesAreRemoved() throws Exception {
+        IMap<WorkflowDataKey, Object> map = hazelcastInstance.getMap("myMap");
+        
+        WorkflowDataKey orphan1 = new WorkflowDataKey("ended-instance", "rest-api");
+        WorkflowDataKey orphan2 = new WorkflowDataKey("ended-instance", "enrich");
+        WorkflowDataKey chunked = new WorkflowDataKey("ended-instance", "upload");
+        WorkflowDataKey live = new WorkflowDataKey("running-instance", "rest-api");
+        ChunkManifest manifest = (ChunkManifest) chunkedPayloadStore.store("myMap", new byte[2 * 1024 * 1024]);
+        map.put(orphan1, "orphan_value_1");
+        map.put(orphan2, "orphan_value_2");
+        map.put(chunked, manifest);
+        map.put(live, "live_value");
+        
+        processEndCleanup.enqueue("ended-instance");
+        
+        IMap<String, byte[]> chunks = hazelcastInstance.getMap(manifest.getChunkMapName());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (map.containsKey(orphan1) || map.containsKey(orphan2) || map.containsKey(chunked)
+                || chunks.containsKey(manifest.chunkKey(0))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Entries and chunks of the ended instance should be removed");
+            Thread.sleep(50);
+        }
+        assertEquals("live_value", map.get(live), "Entries of other instances should be kept");
+    }
+    
+    @Test
+    public void testProcessEndSchedulesCleanup() throws Exception {
+        double before = cleanedInstances();
+        processEngine.getRuntimeService()
+            .startProcessInstanceByKey("process", Map.of("data", "cleanup_test_value"));
+        
+        // The end listener hands the instance to the cleanup thread once the transaction commits
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (cleanedInstances() <= before) {
+            assertTrue(System.currentTimeMillis() < deadline, "Ended instance should be cleaned up");
+            Thread.sleep(50);
+        }
+    }
+    
+    @Test
+    public void testWorkflowMapTuningIsApplied() {
+        MapConfig mapConfig = hazelcastInstance.getConfig().getMapConfig("myMap");
+        
+        // Bound from hazelcast.map.eviction, max-size and in-memory-format in application.yaml
+        assertEquals(EvictionPolicy.LRU, mapConfig.getEvictionConfig().getEvictionPolicy(), "Eviction policy should be bound");
+        assertEquals(MaxSizePolicy.USED_HEAP_PERCENTAGE, mapConfig.getEvictionConfig().getMaxSizePolicy(),
+                    "Max size policy should be bound");
+        assertEquals(60, mapConfig.getEvictionConfig().getSize(), "Max size should be bound");
+        assertEquals(InMemoryFormat.BINARY, mapConfig.getInMemoryFormat(), "In-memory format should be bound");
+        assertNull(mapConfig.getNearCacheConfig(), "Near cache should stay disabled by default");
+    }
+    
+    @Test
+    public void testProcessDefinitionIsRoutedToItsMapProfile() throws InterruptedException {
+        MapConfig fastMapConfig = hazelcastInstance.getConfig().getMapConfig("fastMap");
+        assertEquals(0, fastMapConfig.getBackupCount(), "Profile backup count should be applied");
+        assertEquals(InMemoryFormat.OBJECT, fastMapConfig.getInMemoryFormat(), "Profile in-memory format should be applied");
+        
+        ProcessInstance instance = processEngine.getRuntimeService()
+            .startProcessInstanceByKey("asyncprocess", Map.of("data", "routed_value"));
+        
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (processEngine.getRuntimeService().createProcessInstanceQuery()
+                .processInstanceId(instance.getId()).count() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Async process should complete within 10 seconds");
+            Thread.sleep(50);
+        }
+        
+        HistoricVariableInstance mapName = processEngine.getHistoryService()
+            .createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("hazelcast_map")
+            .singleResult();
+        assertNotNull(mapName, "Chosen map should be recorded next to the key");
+        assertEquals("fastMap", mapName.getValue(), "asyncprocess should hand off through its profile map");
+        
+        HistoricVariableInstance retrieved = processEngine.getHistoryService()
+            .createHistoricVariableInstanceQuery()
+            .processInstanceId(instance.getId())
+            .variableName("retrieved_data")
+            .singleResult();
+        assertEquals("routed_value", retrieved.getValue(), "Value should round-trip through the routed map");
+    }
+    
+    @Test
+    public void testMapConfigCanBeChangedAtRuntime() {
+        String member = hazelcastInstance.getCluster().getLocalMember().getAddress().toString();
+        Map<String, Object> original = hazelcastMapsEndpoint.map("fastMap").get(member);
+        
+        try {
+            WebEndpointResponse<Map<String, Map<String, Object>>> response = hazelcastMapsEndpoint.update(
+                "fastMap", "test-token", 3600, null, 10_000, null, null);
+            assertEquals(WebEndpointResponse.STATUS_OK, response.getStatus());
+            Map<String, Map<String, Object>> effective = response.getBody();
+            assertEquals(3600, effective.get(member).get("timeToLiveSeconds"), "New TTL should be reported per member");
+            assertEquals(10_000, effective.get(member).get("maxSize"), "New size limit should be reported");
+            
+            IMap<String, Object> map = hazelcastInstance.getMap("fastMap");
+            map.put("runtime_ttl_key", "value");
+            assertEquals(3_600_000L, map.getEntryView("runtime_ttl_key").getTtl(), "New entries should get the new TTL");
+            map.remove("runtime_ttl_key");
+            
+            assertTrue(hazelcastInstance.getMap("workflow-map-config-overrides").containsKey("fastMap"),
+                      "Update should be recorded for members that join later");
+        } finally {
+            hazelcastMapsEndpoint.update("fastMap", "test-token", (Integer) original.get("timeToLiveSeconds"), null,
+                (Integer) original.get("maxSize"), null, null);
+            hazelcastInstance.getMap("workflow-map-config-overrides").delete("fastMap");
+        }
+    }
+    
+    @Test
+    public void testMapConfigUpdateNeedsTokenAndKeepsBackups() {
+        assertEquals(403,
+                    hazelcastMapsEndpoint.update("fastMap", null, 60, null, null, null, null).getStatus(),
+                    "Updates without the token should be refused");
+        assertEquals(403,
+                    hazelcastMapsEndpoint.update("fastMap", "wrong-token", 60, null, null, null, null).getStatus(),
+                    "Updates with a wrong token should be refused");
+        assertThrows(InvalidEndpointRequestException.class,
+                    () -> hazelcastMapsEndpoint.update("fastMap", "test-token", null, null, null, 2, null),
+                    "Backup counts should not change on a live map");
+    }
+    
+    private double cleanedInstances() {
+        Counter counter = meterRegistry.find("workflow.hazelcast.cleanup").tag("unit", "instances").counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
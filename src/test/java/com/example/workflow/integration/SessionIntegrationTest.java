@@ -1,7 +1,12 @@
 package com.example.workflow.integration;
 
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.ClusterProperty;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -13,6 +18,7 @@ import org.springframework.session.SessionRepository;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Duration;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -272,4 +278,80 @@ public class SessionIntegrationTest {
         
         assertEquals(0, sessionMap.size(), "All sessions should be cleaned up");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSessionReadsAreServedFromNearCache() {
+        Session session = sessionRepository.createSession();
+        session.setAttribute("userId", "near-cache-user");
+        sessionRepository.save(session);
+        
+        long hitsBefore = sessionMap.getLocalMapStats().getNearCacheStats().getHits();
+        sessionRepository.findById(session.getId());
+        Session warm = sessionRepository.findById(session.getId());
+        assertEquals("near-cache-user", warm.getAttribute("userId"), "Warm read should return the session");
+        assertTrue(sessionMap.getLocalMapStats().getNearCacheStats().getHits() > hitsBefore,
+            "Repeated lookups of a warm session should hit the near cache");
+        
+        // A change must invalidate the cached copy
+        warm.setAttribute("userId", "changed-user");
+        sessionRepository.save(warm);
+        assertEquals("changed-user", sessionRepository.findById(session.getId()).getAttribute("userId"),
+            "Read after a change should not return the stale cached session");
+        
+        sessionRepository.deleteById(session.getId());
+    }
+
+    @Test
+    public void testOtherMemberStopsServingChangedSessionWithinInvalidationInterval() throws InterruptedException {
+        // The test member runs alone, so form a two member cluster with the same session map setup
+        String invalidationProperty = ClusterProperty.MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS.getName();
+        int invalidationSeconds = Integer.parseInt(hazelcastInstance.getConfig().getProperty(invalidationProperty));
+        MapConfig sessionMapConfig = new MapConfig(hazelcastInstance.getConfig().getMapConfig(sessionMap.getName()));
+        assertNotNull(sessionMapConfig.getNearCacheConfig(), "The test profile should enable the session near cache");
+        
+        String clusterName = "session-staleness-" + UUID.randomUUID();
+        HazelcastInstance writer = Hazelcast.newHazelcastInstance(
+            memberConfig(clusterName, sessionMapConfig, invalidationProperty, invalidationSeconds));
+        HazelcastInstance reader = Hazelcast.newHazelcastInstance(
+            memberConfig(clusterName, sessionMapConfig, invalidationProperty, invalidationSeconds));
+        try {
+            assertEquals(2, reader.getCluster().getMembers().size(), "Both members should form one cluster");
+            IMap<String, String> writerMap = writer.getMap(sessionMap.getName());
+            IMap<String, String> readerMap = reader.getMap(sessionMap.getName());
+            
+            writerMap.set("session-1", "logged-in");
+            readerMap.get("session-1");
+            assertEquals("logged-in", readerMap.get("session-1"));
+            assertTrue(readerMap.getLocalMapStats().getNearCacheStats().getHits() > 0,
+                "The second read on the other member should come from its near cache");
+            
+            writerMap.set("session-1", "logged-out");
+            long changedAt = System.nanoTime();
+            long deadline = changedAt + TimeUnit.SECONDS.toNanos(invalidationSeconds + 3);
+            while (!"logged-out".equals(readerMap.get("session-1"))) {
+                assertTrue(System.nanoTime() < deadline,
+                    "The other member should drop the changed session within the invalidation interval");
+                Thread.sleep(50);
+            }
+            logger.info("Other member served the changed session after {} ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - changedAt));
+        } finally {
+            reader.shutdown();
+            writer.shutdown();
+        }
+    }
+
+    private static Config memberConfig(String clusterName, MapConfig sessionMapConfig,
+                                       String invalidationProperty, int invalidationSeconds) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.setProperty(invalidationProperty, String.valueOf(invalidationSeconds));
+        config.getNetworkConfig().setPort(5801).setPortAutoIncrement(true);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.addMapConfig(new MapConfig(sessionMapConfig));
+        return config;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.workflow.persistence;
+
+import com.example.workflow.tasks.ChunkManifest;
+import com.example.workflow.tasks.WorkflowDataKey;
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class WorkflowMapStoreTest {
+
+    private static final String MAP_NAME = "storeTestMap";
+    private static final String TABLE = "hazelcast_handoff";
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private WorkflowMapStore store;
+
+    @BeforeEach
+    public void createTable() {
+        // The store targets PostgreSQL, so run H2 in its compatibility mode
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:mapstore-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "sa", ""));
+        WorkflowMapStore.createTable(jdbcTemplate, TABLE);
+    }
+
+    @AfterEach
+    public void destroyStore() {
+        if (store != null) {
+            store.destroy();
+        }
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testStoreLoadAndLoadAllKeys() {
+        store = newStore(3600);
+        WorkflowDataKey workflowKey = new WorkflowDataKey("instance-1", "activity-1");
+        ChunkManifest manifest = new ChunkManifest("payload-1", "chunks", 3, 1024L, "gzip");
+
+        store.store(workflowKey, "first");
+        store.store("plain-key", manifest);
+        store.store(workflowKey, "second");
+
+        assertEquals(2, rowCount(), "An update should replace the row instead of adding one");
+        assertEquals("second", store.load(workflowKey), "Load should return the latest stored value");
+
+        Map<Object, Object> loaded = store.loadAll(List.of(workflowKey, "plain-key", "missing"));
+        assertEquals(2, loaded.size(), "Only stored keys should be loaded");
+        ChunkManifest loadedManifest = (ChunkManifest) loaded.get("plain-key");
+        assertEquals(manifest.getPayloadId(), loadedManifest.getPayloadId(),
+                    "Compact values should be read back from their stored binary");
+        assertEquals(manifest.getChunkCount(), loadedManifest.getChunkCount());
+
+        // fastMap keeps objects, so the member itself needs the schema the store has seen
+        hazelcastInstance.getMap("fastMap").set("store-test-manifest", manifest);
+        assertEquals(manifest.getPayloadId(),
+                    ((ChunkManifest) hazelcastInstance.getMap("fastMap").remove("store-test-manifest")).getPayloadId(),
+                    "Storing a value should leave its schema registered with the member");
+
+        List<Object> keys = new ArrayList<>();
+        store.loadAllKeys().forEach(keys::add);
+        assertEquals(2, keys.size());
+        assertTrue(keys.contains(workflowKey), "Workflow keys should be restored as WorkflowDataKey");
+        assertTrue(keys.contains("plain-key"), "Other keys should be restored as strings");
+
+        store.delete(workflowKey);
+        assertNull(store.load(workflowKey), "Deleted keys should not be loaded");
+        assertEquals(1, rowCount());
+    }
+
+    @Test
+    public void testExpiredRowsAreSkippedAndPurged() {
+        store = newStore(60);
+        store.store("expired-key", "old");
+        store.store("live-key", "new");
+        jdbcTemplate.update("UPDATE " + TABLE + " SET updated_at = ? WHERE entry_key = ?",
+            Timestamp.from(Instant.now().minusSeconds(120)), "expired-key");
+
+        assertNull(store.load("expired-key"), "Rows older than the TTL should not be loaded");
+        List<Object> keys = new ArrayList<>();
+        store.loadAllKeys().forEach(keys::add);
+        assertEquals(List.of("live-key"), keys, "Rows older than the TTL should not be preloaded");
+
+        assertEquals(1, store.purgeExpired(), "The expired row should be purged");
+        assertEquals(1, rowCount(), "The live row should be kept");
+        assertEquals("new", store.load("live-key"));
+    }
+
+    private WorkflowMapStore newStore(int timeToLiveSeconds) {
+        WorkflowMapStore mapStore = new WorkflowMapStore(MAP_NAME, TABLE, () -> jdbcTemplate, () -> meterRegistry,
+            timeToLiveSeconds, true, 0);
+        mapStore.init(hazelcastInstance, new Properties(), MAP_NAME);
+        return mapStore;
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE + " WHERE map_name = ?", Integer.class, MAP_NAME);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.workflow.serialization;
+
+import com.example.workflow.config.HazelcastProperties;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PayloadCodecRegistryTest {
+
+    @Autowired
+    private PayloadCodecRegistry payloadCodecRegistry;
+
+    @Autowired
+    private HazelcastProperties hazelcastProperties;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Test
+    public void testBuiltinAndJavaPayloadsAreResolved() {
+        assertEquals(PayloadCodec.BUILTIN, payloadCodecRegistry.resolve("plain string"),
+                    "Strings should use the built-in serializer");
+        assertEquals(PayloadCodec.BUILTIN, payloadCodecRegistry.resolve(42L),
+                    "Boxed numbers should use the built-in serializer");
+        assertEquals(PayloadCodec.JAVA, payloadCodecRegistry.resolve(new ArrayList<>()),
+                    "Unregistered Serializable payloads should fall back to Java serialization");
+    }
+
+    @Test
+    public void testJavaFallbackCanBeDisabled() {
+        HazelcastProperties.Serialization serialization = hazelcastProperties.getSerialization();
+        boolean original = serialization.isJavaFallback();
+        try {
+            serialization.setJavaFallback(false);
+            assertThrows(IllegalArgumentException.class, () -> payloadCodecRegistry.resolve(new ArrayList<>()),
+                        "Java-serialized payloads should be rejected when the fallback is disabled");
+            assertEquals(PayloadCodec.BUILTIN, payloadCodecRegistry.resolve("still allowed"),
+                        "Built-in payloads should be unaffected by the fallback setting");
+        } finally {
+            serialization.setJavaFallback(original);
+        }
+    }
+
+    @Test
+    public void testGenericRecordPayloadIsExposedAsFieldMap() {
+        GenericRecord order = GenericRecordBuilder.compact("OrderPayload")
+            .setString("orderId", "order-1")
+            .setInt32("quantity", 3)
+            .setGenericRecord("customer", GenericRecordBuilder.compact("Customer")
+                .setString("name", "demo")
+                .build())
+            .build();
+        assertEquals(PayloadCodec.COMPACT, payloadCodecRegistry.resolve(order),
+                    "GenericRecord payloads should use Compact serialization");
+
+        IMap<String, Object> map = hazelcastInstance.getMap("myMap");
+        map.put("generic_record_test", order);
+        Object stored = map.get("generic_record_test");
+        map.remove("generic_record_test");
+
+        Object variable = payloadCodecRegistry.toVariableValue(stored);
+        assertTrue(variable instanceof Map, "GenericRecord should be converted to a map");
+        Map<?, ?> fields = (Map<?, ?>) variable;
+        assertEquals("order-1", fields.get("orderId"), "String field should be preserved");
+        assertEquals(3, fields.get("quantity"), "Int field should be preserved");
+        assertEquals("demo", ((Map<?, ?>) fields.get("customer")).get("name"), "Nested record should be converted");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.workflow.serialization;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import org.camunda.bpm.webapp.impl.security.auth.Authentication;
+import org.camunda.bpm.webapp.impl.security.auth.Authentications;
+import org.camunda.bpm.webapp.impl.security.auth.UserAuthentication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.session.MapSession;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SessionSerializersTest {
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Test
+    public void testSessionWithCamundaLoginRoundTrips() {
+        MapSession session = camundaSession();
+        SerializationService serializationService = ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+
+        MapSession copy = serializationService.toObject(serializationService.toData(session));
+
+        assertEquals(session.getId(), copy.getId(), "Session id should survive serialization");
+        assertEquals(session.getLastAccessedTime().toEpochMilli(), copy.getLastAccessedTime().toEpochMilli(),
+                    "Last access time should survive serialization");
+        assertEquals(session.getMaxInactiveInterval(), copy.getMaxInactiveInterval(),
+                    "Timeout should survive serialization");
+        assertEquals("token-1", copy.getAttribute("CAMUNDA_CSRF_TOKEN"), "Plain attributes should survive serialization");
+
+        Authentications authentications = copy.getAttribute("authenticatedUser");
+        UserAuthentication login = (UserAuthentication) authentications.getAuthenticationForProcessEngine("default");
+        assertNotNull(login, "The login for the default engine should survive serialization");
+        assertEquals("demo", login.getIdentityId(), "User id should survive serialization");
+        assertEquals(List.of("camunda-admin"), login.getGroupIds(), "Groups should survive serialization");
+        assertEquals(Set.of("cockpit", "tasklist", "admin"), login.getAuthorizedApps(),
+                    "Authorized apps should survive serialization");
+        assertEquals(new Date(1_700_000_000_000L), login.getCacheValidationTime(),
+                    "Cache validation time should survive serialization");
+    }
+
+    @Test
+    public void testSessionIsSmallerThanWithJavaSerialization() throws IOException {
+        MapSession session = camundaSession();
+        Data data = ((SerializationServiceSupport) hazelcastInstance).getSerializationService().toData(session);
+
+        ByteArrayOutputStream javaSerialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(javaSerialized)) {
+            out.writeObject(session);
+        }
+        assertTrue(data.totalSize() < javaSerialized.size(),
+                  "Session should be smaller than its Java-serialized form (" + data.totalSize()
+                      + " vs " + javaSerialized.size() + " bytes)");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOtherAuthenticationTypesAreWrittenAsUserAuthentication() throws ReflectiveOperationException {
+        Authentications authentications = new Authentications();
+        UserAuthentication subclassed = new UserAuthentication("sso-user", "reporting") { };
+        subclassed.setGroupIds(List.of("viewers"));
+        authentications.addOrReplace(subclassed);
+        // The typed API only takes UserAuthentication, plugins can still store the base type
+        Field field = Authentications.class.getDeclaredField("authentications");
+        field.setAccessible(true);
+        ((Map<String, Object>) field.get(authentications)).put("legacy", new Authentication("legacy-user", "legacy"));
+        SerializationService serializationService = ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+
+        Authentications copy = serializationService.toObject(serializationService.toData(authentications));
+
+        Authentication legacy = copy.getAuthenticationForProcessEngine("legacy");
+        assertEquals("legacy-user", legacy.getIdentityId(), "A base Authentication should survive serialization");
+        UserAuthentication reporting = (UserAuthentication) copy.getAuthenticationForProcessEngine("reporting");
+        assertEquals("sso-user", reporting.getIdentityId(), "A subclassed login should survive serialization");
+        assertEquals(List.of("viewers"), reporting.getGroupIds(), "Groups of a subclassed login should be kept");
+    }
+
+    static MapSession camundaSession() {
+        UserAuthentication login = new UserAuthentication("demo", "default");
+        login.setGroupIds(List.of("camunda-admin"));
+        login.setTenantIds(List.of());
+        login.setAuthorizedApps(Set.of("cockpit", "tasklist", "admin"));
+        login.setCacheValidationTime(new Date(1_700_000_000_000L));
+        Authentications authentications = new Authentications();
+        authentications.addOrReplace(login);
+
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(Duration.ofMinutes(30));
+        session.setAttribute("authenticatedUser", authentications);
+        session.setAttribute("CAMUNDA_CSRF_TOKEN", "token-1");
+        return session;
+    }
+}
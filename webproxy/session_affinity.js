@@ -0,0 +1,91 @@
+// Routes each request to the Camunda node that owns the Hazelcast partition of its session,
+// so session reads and writes stay on that node. The partition table comes from
+// /actuator/sessionaffinity and is refreshed periodically; without it, or without a session
+// cookie, requests are balanced across all nodes as before.
+
+const TABLE_URL = 'http://camunda:9000/actuator/sessionaffinity';
+const MURMUR_SEED = 0x01000193;
+
+async function refresh() {
+    const dict = ngx.shared.session_affinity;
+    try {
+        const reply = await ngx.fetch(TABLE_URL, {headers: {Accept: 'application/json'}});
+        if (!reply.ok) {
+            // Affinity is disabled on the nodes, forget what we knew
+            dict.clear();
+            return;
+        }
+        const table = await reply.json();
+        for (let partition = 0; partition < table.partitionCount; partition++) {
+            const owner = table.owners[partition];
+            if (owner >= 0) {
+                dict.set(String(partition), table.members[owner]);
+            } else {
+                dict.delete(String(partition));
+            }
+        }
+        dict.set('partitionCount', String(table.partitionCount));
+    } catch (e) {
+        ngx.log(ngx.WARN, `session affinity table not refreshed: ${e}`);
+    }
+}
+
+// Returns host:port of the node owning the session's partition, or '' to balance the request
+function owner(r) {
+    const dict = ngx.shared.session_affinity;
+    const partitionCount = Number(dict.get('partitionCount'));
+    const cookie = r.variables.cookie_CAMUNDA_SESSION;
+    if (!partitionCount || !cookie) {
+        return '';
+    }
+    // Spring Session stores the session id base64-encoded in the cookie
+    const sessionId = Buffer.from(cookie, 'base64').toString();
+    return dict.get(String(partitionId(sessionId, partitionCount))) || '';
+}
+
+// Hazelcast serializes a String key as its UTF-8 length (big-endian int) followed by the
+// UTF-8 bytes, hashes that with MurmurHash3 x86_32 and takes abs(hash) % partitionCount
+function partitionId(sessionId, partitionCount) {
+    const utf8 = Buffer.from(sessionId);
+    const data = Buffer.alloc(4 + utf8.length);
+    data.writeInt32BE(utf8.length, 0);
+    utf8.copy(data, 4);
+    const hash = murmur3(data, MURMUR_SEED);
+    return hash === -2147483648 ? 0 : Math.abs(hash) % partitionCount;
+}
+
+function murmur3(data, seed) {
+    const c1 = 0xcc9e2d51;
+    const c2 = 0x1b873593;
+    const blocks = data.length & ~3;
+    let h1 = seed | 0;
+    for (let i = 0; i < blocks; i += 4) {
+        let k1 = data.readInt32LE(i);
+        k1 = Math.imul(k1, c1);
+        k1 = (k1 << 15) | (k1 >>> 17);
+        k1 = Math.imul(k1, c2);
+        h1 ^= k1;
+        h1 = (h1 << 13) | (h1 >>> 19);
+        h1 = (Math.imul(h1, 5) + 0xe6546b64) | 0;
+    }
+    let k1 = 0;
+    switch (data.length & 3) {
+        case 3: k1 ^= data[blocks + 2] << 16;
+        case 2: k1 ^= data[blocks + 1] << 8;
+        case 1:
+            k1 ^= data[blocks];
+            k1 = Math.imul(k1, c1);
+            k1 = (k1 << 15) | (k1 >>> 17);
+            k1 = Math.imul(k1, c2);
+            h1 ^= k1;
+    }
+    h1 ^= data.length;
+    h1 ^= h1 >>> 16;
+    h1 = Math.imul(h1, 0x85ebca6b);
+    h1 ^= h1 >>> 13;
+    h1 = Math.imul(h1, 0xc2b2ae35);
+    h1 ^= h1 >>> 16;
+    return h1 | 0;
+}
+
+export default {refresh, owner};